@@ -0,0 +1,31 @@
+package taxi.bench;
+
+import java.sql.SQLException;
+import taxi.tools.FleetGenerator;
+
+/**
+ * Points {@code ConnectionUtil} at an in-memory H2 database in MySQL mode
+ * and fills it with a fleet of cars. Has to run before any DAO class is
+ * touched, the connection settings are read once.
+ */
+public class BenchmarkDatabase {
+    private static final String URL = "jdbc:h2:mem:bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+            + "DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:h2-schema.sql'";
+    private static final int MANUFACTURERS = 50;
+    private static final int CARS_PER_DRIVER = 5;
+
+    /**
+     * Creates the database with the given number of cars, generated by
+     * {@link FleetGenerator} with its default seed, and returns the number
+     * of drivers.
+     */
+    public static int create(int cars) throws SQLException {
+        System.setProperty("taxi.db.driver", "org.h2.Driver");
+        System.setProperty("taxi.db.url", URL);
+        System.setProperty("taxi.db.username", "sa");
+        System.setProperty("taxi.db.password", "");
+        int drivers = Math.max(1, cars / CARS_PER_DRIVER);
+        new FleetGenerator(MANUFACTURERS, drivers, cars).insert(URL, "sa", "");
+        return drivers;
+    }
+}
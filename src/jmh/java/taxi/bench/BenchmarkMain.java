@@ -0,0 +1,57 @@
+package taxi.bench;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs JMH with the given arguments and writes the results as JSON to
+ * {@code target/jmh/<time>-<commit>.json}, so runs of different commits can
+ * be compared side by side, e.g. with jmh.morethan.io.
+ */
+public class BenchmarkMain {
+    private static final String RESULTS_DIRECTORY = "target/jmh";
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    public static void main(String[] args) throws Exception {
+        File directory = new File(RESULTS_DIRECTORY);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Can't create " + directory);
+        }
+        File results = new File(directory,
+                LocalDateTime.now().format(TIMESTAMP) + "-" + getCommit() + ".json");
+        List<String> jmhArgs = new ArrayList<>(List.of("-rf", "json",
+                "-rff", results.getPath()));
+        jmhArgs.addAll(Arrays.asList(args));
+        System.out.println("Writing results to " + results);
+        org.openjdk.jmh.Main.main(jmhArgs.toArray(new String[0]));
+    }
+
+    private static String getCommit() {
+        try {
+            Process git = new ProcessBuilder("git", "rev-parse", "--short", "HEAD")
+                    .redirectErrorStream(true)
+                    .start();
+            try (BufferedReader output = new BufferedReader(new InputStreamReader(
+                    git.getInputStream(), StandardCharsets.UTF_8))) {
+                String commit = output.readLine();
+                if (git.waitFor() == 0 && commit != null) {
+                    return commit.trim();
+                }
+            }
+        } catch (IOException e) {
+            // no git on the path, e.g. building from a source archive
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "local";
+    }
+}
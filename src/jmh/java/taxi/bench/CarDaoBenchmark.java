@@ -0,0 +1,62 @@
+package taxi.bench;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import taxi.dao.CarDao;
+import taxi.dao.CarDaoImpl;
+import taxi.model.Car;
+import taxi.util.ConnectionUtil;
+
+/**
+ * {@link CarDaoImpl} reads through the connection pool against H2, with the
+ * JDBC tracing in place as in production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CarDaoBenchmark {
+    @Param({"1000", "10000", "100000"})
+    private int cars;
+    private int drivers;
+    private CarDao carDao;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        drivers = BenchmarkDatabase.create(cars);
+        carDao = new CarDaoImpl();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ConnectionUtil.shutdown();
+    }
+
+    @Benchmark
+    public List<Car> getAll() {
+        return carDao.getAll();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Car> getAllByDriver() {
+        return carDao.getAllByDriver(ThreadLocalRandom.current().nextLong(1, drivers + 1));
+    }
+}
@@ -0,0 +1,72 @@
+package taxi.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import taxi.model.Car;
+import taxi.model.Driver;
+import taxi.model.Manufacturer;
+
+/**
+ * {@link Car#hashCode()} and {@link Car#equals(Object)} walk the whole
+ * driver list, which matters once cars end up in sets or map keys.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CarEqualityBenchmark {
+    @Param({"10", "1000", "100000"})
+    private int drivers;
+    private Car car;
+    private Car sameCar;
+
+    @Setup
+    public void setUp() {
+        car = createCar(drivers);
+        sameCar = createCar(drivers);
+    }
+
+    @Benchmark
+    public int hashCodeOfCar() {
+        return car.hashCode();
+    }
+
+    @Benchmark
+    public boolean equalsOfEqualCars() {
+        return car.equals(sameCar);
+    }
+
+    private static Car createCar(int drivers) {
+        Manufacturer manufacturer = new Manufacturer();
+        manufacturer.setId(1L);
+        manufacturer.setName("Manufacturer");
+        manufacturer.setCountry("Country");
+        Car car = new Car("Model", manufacturer);
+        car.setId(1L);
+        List<Driver> driverList = new ArrayList<>();
+        for (long i = 1; i <= drivers; i++) {
+            Driver driver = new Driver();
+            driver.setId(i);
+            driver.setName("Driver " + i);
+            driver.setLicenseNumber("LN" + i);
+            driver.setLogin("driver" + i);
+            driverList.add(driver);
+        }
+        car.setDrivers(driverList);
+        return car;
+    }
+}
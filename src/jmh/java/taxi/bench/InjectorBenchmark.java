@@ -0,0 +1,47 @@
+package taxi.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import taxi.lib.Injector;
+import taxi.service.CarService;
+
+/**
+ * Lookups every controller does: the injector of a package and a wired
+ * component from it, with several threads asking at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class InjectorBenchmark {
+    private Injector injector;
+
+    @Setup
+    public void setUp() {
+        injector = Injector.getInstance("taxi");
+        injector.getInstance(CarService.class);
+    }
+
+    @Benchmark
+    public Injector getInjector() {
+        return Injector.getInstance("taxi");
+    }
+
+    @Benchmark
+    public Object getInstance() {
+        return injector.getInstance(CarService.class);
+    }
+}
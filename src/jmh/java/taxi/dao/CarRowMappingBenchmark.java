@@ -0,0 +1,65 @@
+package taxi.dao;
+
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.h2.tools.SimpleResultSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import taxi.model.Car;
+
+/**
+ * Turns the joined car, manufacturer and driver rows into cars the way
+ * {@link CarDaoImpl} does, from an in-memory result set, so only the mapping
+ * is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CarRowMappingBenchmark {
+    private static final int DRIVERS_PER_CAR = 2;
+    @Param({"1000", "10000"})
+    private int cars;
+    private CarDaoImpl carDao;
+    private SimpleResultSet rows;
+
+    @Setup
+    public void setUp() {
+        carDao = new CarDaoImpl();
+        rows = new SimpleResultSet();
+        rows.setAutoClose(false);
+        rows.addColumn("id", Types.BIGINT, 19, 0);
+        rows.addColumn("model", Types.VARCHAR, 255, 0);
+        rows.addColumn("manufacturer_id", Types.BIGINT, 19, 0);
+        rows.addColumn("manufacturer_name", Types.VARCHAR, 255, 0);
+        rows.addColumn("manufacturer_country", Types.VARCHAR, 255, 0);
+        rows.addColumn("driver_id", Types.BIGINT, 19, 0);
+        rows.addColumn("driver_name", Types.VARCHAR, 255, 0);
+        rows.addColumn("driver_license_number", Types.VARCHAR, 255, 0);
+        for (long car = 1; car <= cars; car++) {
+            for (long driver = car; driver < car + DRIVERS_PER_CAR; driver++) {
+                rows.addRow(car, "Model " + car % 100, car % 50, "Manufacturer " + car % 50,
+                        "Country " + car % 10, driver, "Driver " + driver, "LN" + driver);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Car> parseCars() throws SQLException {
+        rows.beforeFirst();
+        return carDao.parseCarsWithDriversFromResultSet(rows);
+    }
+}
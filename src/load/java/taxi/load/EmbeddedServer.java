@@ -0,0 +1,55 @@
+package taxi.load;
+
+import java.io.File;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.util.VirtualThreads;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.webapp.WebAppContext;
+
+/**
+ * Runs the web application from {@code src/main/webapp} in Jetty, with the
+ * classes and libraries taken from the class path, so the load test needs
+ * neither a packaged WAR nor a servlet container install. With virtual
+ * threads, Jetty keeps its pool for selecting and hands every request to a
+ * virtual thread of its own.
+ */
+class EmbeddedServer {
+    private static final String CONTAINER_JARS = ".*/apache-jsp-[^/]*\\.jar$"
+            + "|.*/jstl-[^/]*\\.jar$";
+    private final Server server;
+
+    EmbeddedServer(File webapp, int port, int threads, boolean virtualThreads) {
+        QueuedThreadPool threadPool = new QueuedThreadPool(threads);
+        if (virtualThreads) {
+            if (!VirtualThreads.areSupported()) {
+                throw new IllegalStateException("Virtual threads need JDK 21 or newer, running on "
+                        + Runtime.version());
+            }
+            threadPool.setVirtualThreadsExecutor(VirtualThreads.getDefaultVirtualThreadsExecutor());
+        }
+        server = new Server(threadPool);
+        ServerConnector connector = new ServerConnector(server);
+        connector.setPort(port);
+        server.addConnector(connector);
+        WebAppContext context = new WebAppContext();
+        context.setContextPath("/");
+        context.setResourceBase(webapp.getPath());
+        context.setDescriptor(new File(webapp, "web.xml").getPath());
+        context.setParentLoaderPriority(true);
+        context.setAttribute("org.eclipse.jetty.server.webapp.ContainerIncludeJarPattern",
+                CONTAINER_JARS);
+        // logging is set up by LoadTest, not from WEB-INF/log4j2.xml
+        context.setInitParameter("isLog4jAutoInitializationDisabled", "true");
+        server.setHandler(context);
+    }
+
+    int start() throws Exception {
+        server.start();
+        return ((ServerConnector) server.getConnectors()[0]).getLocalPort();
+    }
+
+    void stop() throws Exception {
+        server.stop();
+    }
+}
@@ -0,0 +1,70 @@
+package taxi.load;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import taxi.metrics.Histogram;
+
+/**
+ * Latencies and failures per operation, collected by all simulated drivers
+ * at once.
+ */
+class LoadResults {
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Histogram totalLatency = new Histogram();
+    private final LongAdder totalErrors = new LongAdder();
+
+    LoadResults() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new Histogram());
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    void record(Operation operation, long nanos, boolean failed) {
+        latencies.get(operation).record(nanos);
+        totalLatency.record(nanos);
+        if (failed) {
+            errors.get(operation).increment();
+            totalErrors.increment();
+        }
+    }
+
+    double getErrorRate() {
+        return totalLatency.getCount() == 0 ? 0
+                : (double) totalErrors.sum() / totalLatency.getCount();
+    }
+
+    double getP99Millis() {
+        return totalLatency.getPercentile(0.99) / NANOS_PER_MILLI;
+    }
+
+    long getRequestCount() {
+        return totalLatency.getCount();
+    }
+
+    void print(PrintStream out, double seconds) {
+        out.printf(Locale.ROOT, "%-10s %9s %7s %7s %9s %9s %9s %9s %9s%n", "operation",
+                "requests", "errors", "error%", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Operation operation : Operation.values()) {
+            print(out, operation.getOptionName(), latencies.get(operation),
+                    errors.get(operation).sum(), seconds);
+        }
+        print(out, "total", totalLatency, totalErrors.sum(), seconds);
+    }
+
+    private static void print(PrintStream out, String name, Histogram latency, long errorCount,
+                              double seconds) {
+        long count = latency.getCount();
+        out.printf(Locale.ROOT, "%-10s %9d %7d %7.2f %9.1f %9.2f %9.2f %9.2f %9.2f%n", name,
+                count, errorCount, count == 0 ? 0 : 100.0 * errorCount / count, count / seconds,
+                latency.getPercentile(0.5) / NANOS_PER_MILLI,
+                latency.getPercentile(0.95) / NANOS_PER_MILLI,
+                latency.getPercentile(0.99) / NANOS_PER_MILLI,
+                latency.getMax() / NANOS_PER_MILLI);
+    }
+}
@@ -0,0 +1,140 @@
+package taxi.load;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import taxi.tools.FleetGenerator;
+
+/**
+ * Seeds a database, starts the application in an embedded Jetty and lets
+ * simulated drivers use it for a while, then prints throughput, latency
+ * percentiles and error rates per operation. Exits with status 1 when the
+ * error rate or the 99th percentile is over its limit, so a release build
+ * can be gated on it. Runs offline against an in-memory H2 database unless
+ * {@code db.url} points somewhere else.
+ *
+ * <p>Options, as {@code name=value} arguments:
+ * <ul>
+ *     <li>{@code cars} (10000), {@code drivers} (cars / 5): the seeded fleet,
+ *     see {@link FleetGenerator};</li>
+ *     <li>{@code users} (50): simulated drivers running at once;</li>
+ *     <li>{@code warmupSeconds} (5), {@code durationSeconds} (30): the run,
+ *     requests started during the warmup aren't counted;</li>
+ *     <li>{@code thinkMs} (0): pause of a driver between requests;</li>
+ *     <li>{@code login}, {@code myCars}, {@code cars}, {@code addDriver}
+ *     prefixed with {@code weight.}: the request mix, see {@link Operation};</li>
+ *     <li>{@code maxErrorRate} (0.01), {@code maxP99Ms} (0, no limit): the gate;</li>
+ *     <li>{@code db.url}, {@code db.username}, {@code db.password}: an existing
+ *     database with the schema of {@code init_db.sql}, its content is replaced;</li>
+ *     <li>{@code pool} (10): connection pool size, {@code serverThreads} (200),
+ *     {@code threads} ({@code platform} or {@code virtual}, default from
+ *     {@code -Dtaxi.threads}, which the {@code jdk21} profile sets): the threads
+ *     requests and DAO work run on;</li>
+ *     <li>{@code webapp} ({@code src/main/webapp}), {@code port} (0, any free).</li>
+ * </ul>
+ */
+public class LoadTest {
+    private static final String LOG_CONFIGURATION = "log4j2-load.xml";
+    private static final String H2_URL = "jdbc:h2:mem:load;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+            + "DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:h2-schema.sql'";
+    private static final int CARS_PER_DRIVER = 5;
+    private static final int MANUFACTURERS = 50;
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("log4j.configurationFile", LOG_CONFIGURATION);
+        Options options = new Options(args);
+        int cars = options.getInt("cars", 10_000);
+        int users = options.getInt("users", 50);
+        int drivers = Math.max(users, options.getInt("drivers", cars / CARS_PER_DRIVER));
+        int warmupSeconds = options.getInt("warmupSeconds", 5);
+        int durationSeconds = options.getInt("durationSeconds", 30);
+        int[] cumulativeWeights = getCumulativeWeights(options);
+
+        String url = options.get("db.url", H2_URL);
+        String username = options.get("db.username", "sa");
+        String password = options.get("db.password", "");
+        if (url.startsWith("jdbc:h2:")) {
+            System.setProperty("taxi.db.driver", "org.h2.Driver");
+        }
+        System.setProperty("taxi.db.url", url);
+        System.setProperty("taxi.db.username", username);
+        System.setProperty("taxi.db.password", password);
+        System.setProperty("taxi.db.pool.maxSize", options.get("pool", "10"));
+        String threads = options.get("threads", System.getProperty("taxi.threads", "platform"));
+        System.setProperty("taxi.threads", threads);
+        System.setProperty("taxi.auth.secret", "load-test");
+        System.out.printf("Seeding %d cars and %d drivers%n", cars, drivers);
+        FleetGenerator fleet = new FleetGenerator(MANUFACTURERS, drivers, cars);
+        // Simulated drivers log in as the first drivers, none of them may be deleted
+        fleet.setDeletedFraction(0);
+        fleet.insert(url, username, password);
+
+        EmbeddedServer server = new EmbeddedServer(new File(options.get("webapp",
+                "src/main/webapp")), options.getInt("port", 0),
+                options.getInt("serverThreads", 200), threads.equalsIgnoreCase("virtual"));
+        int port = server.start();
+        URI base = URI.create("http://localhost:" + port);
+        System.out.printf("Running %d users against %s for %d s after %d s of warmup%n",
+                users, base, durationSeconds, warmupSeconds);
+        LoadResults results = new LoadResults();
+        ExecutorService executor = Executors.newFixedThreadPool(users);
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        for (int i = 0; i < users; i++) {
+            executor.execute(new SimulatedDriver(client, base, i + 1, cars, cumulativeWeights,
+                    results, measureFrom, end, options.getInt("thinkMs", 0)));
+        }
+        executor.shutdown();
+        executor.awaitTermination(warmupSeconds + durationSeconds + 60, TimeUnit.SECONDS);
+        executor.shutdownNow();
+        server.stop();
+
+        results.print(System.out, durationSeconds);
+        System.exit(passesGate(options, results) ? 0 : 1);
+    }
+
+    private static int[] getCumulativeWeights(Options options) {
+        Operation[] operations = Operation.values();
+        int[] cumulative = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += options.getInt("weight." + operations[i].getOptionName(),
+                    operations[i].getDefaultWeight());
+            cumulative[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("At least one operation needs a weight");
+        }
+        return cumulative;
+    }
+
+    private static boolean passesGate(Options options, LoadResults results) {
+        double maxErrorRate = options.getDouble("maxErrorRate", 0.01);
+        double maxP99Millis = options.getDouble("maxP99Ms", 0);
+        boolean passed = true;
+        if (results.getRequestCount() == 0) {
+            System.out.println("FAILED: no requests completed");
+            passed = false;
+        }
+        if (results.getErrorRate() > maxErrorRate) {
+            System.out.printf(Locale.ROOT, "FAILED: error rate %.4f is over %.4f%n",
+                    results.getErrorRate(), maxErrorRate);
+            passed = false;
+        }
+        if (maxP99Millis > 0 && results.getP99Millis() > maxP99Millis) {
+            System.out.printf(Locale.ROOT, "FAILED: p99 %.1f ms is over %.1f ms%n",
+                    results.getP99Millis(), maxP99Millis);
+            passed = false;
+        }
+        return passed;
+    }
+}
@@ -0,0 +1,28 @@
+package taxi.load;
+
+/**
+ * The requests a simulated driver makes, with how often each is picked by
+ * default, in percent.
+ */
+enum Operation {
+    LOGIN("login", 5),
+    MY_CARS("myCars", 40),
+    CARS("cars", 40),
+    ADD_DRIVER("addDriver", 15);
+
+    private final String optionName;
+    private final int defaultWeight;
+
+    Operation(String optionName, int defaultWeight) {
+        this.optionName = optionName;
+        this.defaultWeight = defaultWeight;
+    }
+
+    String getOptionName() {
+        return optionName;
+    }
+
+    int getDefaultWeight() {
+        return defaultWeight;
+    }
+}
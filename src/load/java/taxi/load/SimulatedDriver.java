@@ -0,0 +1,138 @@
+package taxi.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import taxi.tools.FleetGenerator;
+
+/**
+ * One driver using the site: logs in, then keeps looking at their own cars
+ * and the car list and adding themselves to random cars until the test ends.
+ * Responses are read completely, redirects are not followed.
+ */
+class SimulatedDriver implements Runnable {
+    private static final String AUTH_COOKIE = "taxi_auth=";
+    private final HttpClient client;
+    private final URI base;
+    private final long driverId;
+    private final int cars;
+    private final int[] cumulativeWeights;
+    private final LoadResults results;
+    private final long measureFromNanos;
+    private final long endNanos;
+    private final long thinkMillis;
+    private String cookie;
+
+    SimulatedDriver(HttpClient client, URI base, long driverId, int cars, int[] cumulativeWeights,
+                    LoadResults results, long measureFromNanos, long endNanos,
+                    long thinkMillis) {
+        this.client = client;
+        this.base = base;
+        this.driverId = driverId;
+        this.cars = cars;
+        this.cumulativeWeights = cumulativeWeights;
+        this.results = results;
+        this.measureFromNanos = measureFromNanos;
+        this.endNanos = endNanos;
+        this.thinkMillis = thinkMillis;
+    }
+
+    @Override
+    public void run() {
+        while (System.nanoTime() < endNanos && !Thread.currentThread().isInterrupted()) {
+            Operation operation = cookie == null ? Operation.LOGIN : pickOperation();
+            long start = System.nanoTime();
+            boolean failed;
+            try {
+                failed = !execute(operation);
+            } catch (IOException e) {
+                failed = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (start >= measureFromNanos) {
+                results.record(operation, System.nanoTime() - start, failed);
+            }
+            if (thinkMillis > 0) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(thinkMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private Operation pickOperation() {
+        int ticket = ThreadLocalRandom.current()
+                .nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (ticket < cumulativeWeights[i]) {
+                return Operation.values()[i];
+            }
+        }
+        throw new IllegalStateException("No operation for ticket " + ticket);
+    }
+
+    private boolean execute(Operation operation) throws IOException, InterruptedException {
+        switch (operation) {
+            case LOGIN:
+                return login();
+            case MY_CARS:
+                return get("/drivers/cars");
+            case CARS:
+                return get("/cars");
+            case ADD_DRIVER:
+                long carId = ThreadLocalRandom.current().nextLong(1, cars + 1);
+                return post("/cars/drivers/add", "driver_id=" + driverId + "&car_id=" + carId)
+                        .statusCode() == 302;
+            default:
+                throw new IllegalArgumentException("Unknown operation " + operation);
+        }
+    }
+
+    private boolean login() throws IOException, InterruptedException {
+        HttpResponse<Void> response = post("/login", "login=driver" + driverId
+                + "&password=" + URLEncoder.encode(FleetGenerator.PASSWORD,
+                StandardCharsets.UTF_8));
+        cookie = response.headers().allValues("Set-Cookie").stream()
+                .filter(header -> header.startsWith(AUTH_COOKIE))
+                .map(header -> header.split(";", 2)[0])
+                .findFirst()
+                .orElse(null);
+        return response.statusCode() == 302 && cookie != null;
+    }
+
+    private boolean get(String path) throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(request(path).GET().build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() == 302) {
+            cookie = null;
+        }
+        return response.statusCode() == 200;
+    }
+
+    private HttpResponse<Void> post(String path, String form)
+            throws IOException, InterruptedException {
+        return client.send(request(path)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build(), HttpResponse.BodyHandlers.discarding());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(base.resolve(path))
+                .header("Accept-Encoding", "gzip");
+        if (cookie != null) {
+            request.header("Cookie", cookie);
+        }
+        return request;
+    }
+}
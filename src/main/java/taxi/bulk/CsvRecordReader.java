@@ -0,0 +1,103 @@
+package taxi.bulk;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RFC 4180 CSV reader. The first record is the header, quoted fields may
+ * contain separators, doubled quotes and line breaks.
+ */
+public class CsvRecordReader implements RecordReader {
+    private static final int END_OF_INPUT = -1;
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    private final BufferedReader reader;
+    private final List<String> header;
+    private long lineNumber = 1;
+    private long recordLineNumber;
+
+    public CsvRecordReader(Reader reader) throws IOException {
+        this.reader = new BufferedReader(reader);
+        List<String> headerFields = readFields();
+        if (headerFields == null) {
+            throw new IOException("CSV input has no header");
+        }
+        header = new ArrayList<>();
+        for (String field : headerFields) {
+            header.add(field.trim().toLowerCase());
+        }
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException {
+        List<String> fields = readFields();
+        while (fields != null && fields.size() == 1 && fields.get(0).isEmpty()) {
+            fields = readFields();
+        }
+        if (fields == null) {
+            return null;
+        }
+        Map<String, String> record = new HashMap<>();
+        for (int i = 0; i < header.size() && i < fields.size(); i++) {
+            record.put(header.get(i), fields.get(i));
+        }
+        return record;
+    }
+
+    @Override
+    public long getLineNumber() {
+        return recordLineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private List<String> readFields() throws IOException {
+        int character = reader.read();
+        if (character == END_OF_INPUT) {
+            return null;
+        }
+        recordLineNumber = lineNumber;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (character != END_OF_INPUT) {
+            if (quoted) {
+                if (character == QUOTE) {
+                    reader.mark(1);
+                    if (reader.read() == QUOTE) {
+                        field.append(QUOTE);
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    if (character == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) character);
+                }
+            } else if (character == QUOTE) {
+                quoted = true;
+            } else if (character == SEPARATOR) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (character == '\n') {
+                lineNumber++;
+                break;
+            } else if (character != '\r') {
+                field.append((char) character);
+            }
+            character = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,42 @@
+package taxi.bulk;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import taxi.lib.Injector;
+import taxi.service.ImportService;
+
+/**
+ * Command line entry point for bulk imports.
+ * <pre>
+ * java -cp ... taxi.bulk.ImportCli drivers|manufacturers|cars FILE [csv|ndjson]
+ * </pre>
+ * Connection settings come from the usual {@code taxi.db.*} system properties.
+ */
+public class ImportCli {
+    private static final int ARGUMENTS_WITHOUT_FORMAT = 2;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < ARGUMENTS_WITHOUT_FORMAT) {
+            System.err.println("Usage: ImportCli drivers|manufacturers|cars FILE [csv|ndjson]");
+            System.exit(1);
+        }
+        ImportType type = ImportType.valueOf(args[0].toUpperCase());
+        Path file = Path.of(args[1]);
+        ImportFormat format = args.length > ARGUMENTS_WITHOUT_FORMAT
+                ? ImportFormat.valueOf(args[2].toUpperCase())
+                : ImportFormat.fromFileName(file.getFileName().toString());
+        ImportService importService = (ImportService) Injector.getInstance("taxi")
+                .getInstance(ImportService.class);
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            ImportReport report = importService.importData(type, format, reader,
+                    progress -> System.out.printf("%s: %d imported, %d rejected, %d rows/s%n",
+                            progress.getType(), progress.getImported(), progress.getRejected(),
+                            progress.getRowsPerSecond()));
+            System.out.println(report);
+            report.getRejections().forEach(System.out::println);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package taxi.bulk;
+
+public enum ImportFormat {
+    CSV,
+    NDJSON;
+
+    public static ImportFormat fromFileName(String fileName) {
+        String lowerCaseName = fileName.toLowerCase();
+        return lowerCaseName.endsWith(".ndjson") || lowerCaseName.endsWith(".jsonl")
+                ? NDJSON : CSV;
+    }
+}
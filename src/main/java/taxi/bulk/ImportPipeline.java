@@ -0,0 +1,107 @@
+package taxi.bulk;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.exception.DataProcessingException;
+
+/**
+ * Two stage import: the calling thread parses and validates records into
+ * chunks while a writer thread stores the previous chunks. The bounded
+ * queue between them keeps memory flat, at most {@code QUEUE_CAPACITY + 2}
+ * chunks exist at any time, whatever the size of the input.
+ */
+public class ImportPipeline<T> {
+    private static final Logger logger = LogManager.getLogger(ImportPipeline.class);
+    private static final int QUEUE_CAPACITY = 4;
+    private static final long OFFER_TIMEOUT_MS = 100;
+    private final int chunkSize;
+    private final RecordMapper<T> mapper;
+    private final Consumer<List<T>> writer;
+
+    public ImportPipeline(int chunkSize, RecordMapper<T> mapper, Consumer<List<T>> writer) {
+        this.chunkSize = chunkSize;
+        this.mapper = mapper;
+        this.writer = writer;
+    }
+
+    public ImportReport run(ImportType type, RecordReader reader,
+                            ImportProgressListener listener) {
+        ImportReport report = new ImportReport(type);
+        BlockingQueue<List<T>> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        ExecutorService writerExecutor = Executors.newSingleThreadExecutor(
+                runnable -> new Thread(runnable, "import-writer-" + type.name().toLowerCase()));
+        Future<?> writing = writerExecutor.submit(() -> write(queue, report, listener));
+        try {
+            List<T> chunk = new ArrayList<>(chunkSize);
+            Map<String, String> record;
+            while ((record = reader.next()) != null) {
+                report.recordRead();
+                try {
+                    chunk.add(mapper.map(record));
+                } catch (IllegalArgumentException e) {
+                    report.recordRejected(reader.getLineNumber(), e.getMessage());
+                }
+                if (chunk.size() == chunkSize) {
+                    enqueue(queue, chunk, writing);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                enqueue(queue, chunk, writing);
+            }
+            enqueue(queue, List.of(), writing);
+            writing.get();
+        } catch (IOException e) {
+            throw new DataProcessingException("Can't read " + type + " import at line "
+                    + reader.getLineNumber() + ", " + report, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataProcessingException("Import of " + type + " was interrupted, "
+                    + report, e);
+        } catch (ExecutionException e) {
+            throw new DataProcessingException("Can't write " + type + " import, "
+                    + report, e.getCause());
+        } finally {
+            writing.cancel(true);
+            writerExecutor.shutdownNow();
+            report.finish();
+        }
+        logger.info("Import finished: {}", report);
+        return report;
+    }
+
+    private Void write(BlockingQueue<List<T>> queue, ImportReport report,
+                       ImportProgressListener listener) throws InterruptedException {
+        List<T> chunk = queue.take();
+        while (!chunk.isEmpty()) {
+            writer.accept(chunk);
+            report.recordImported(chunk.size());
+            listener.onProgress(report);
+            logger.debug("Import progress: {}", report);
+            chunk = queue.take();
+        }
+        return null;
+    }
+
+    private void enqueue(BlockingQueue<List<T>> queue, List<T> chunk, Future<?> writing)
+            throws InterruptedException, ExecutionException {
+        while (!queue.offer(chunk, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            if (writing.isDone()) {
+                writing.get();
+                throw new IllegalStateException("Import writer stopped early");
+            }
+        }
+    }
+}
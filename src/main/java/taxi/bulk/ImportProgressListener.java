@@ -0,0 +1,6 @@
+package taxi.bulk;
+
+@FunctionalInterface
+public interface ImportProgressListener {
+    void onProgress(ImportReport report);
+}
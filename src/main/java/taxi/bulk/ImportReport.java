@@ -0,0 +1,86 @@
+package taxi.bulk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ImportReport {
+    private static final int MAX_REPORTED_REJECTIONS = 100;
+    private final ImportType type;
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong read = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final List<String> rejections = Collections.synchronizedList(new ArrayList<>());
+    private volatile long finishNanos;
+
+    public ImportReport(ImportType type) {
+        this.type = type;
+    }
+
+    public ImportType getType() {
+        return type;
+    }
+
+    public long getRead() {
+        return read.get();
+    }
+
+    public long getImported() {
+        return imported.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public List<String> getRejections() {
+        return List.copyOf(rejections);
+    }
+
+    public long getElapsedMillis() {
+        long end = finishNanos == 0 ? System.nanoTime() : finishNanos;
+        return TimeUnit.NANOSECONDS.toMillis(end - startNanos);
+    }
+
+    public long getRowsPerSecond() {
+        long elapsedMillis = Math.max(getElapsedMillis(), 1);
+        return imported.get() * 1000 / elapsedMillis;
+    }
+
+    public boolean isFinished() {
+        return finishNanos != 0;
+    }
+
+    void recordRead() {
+        read.incrementAndGet();
+    }
+
+    void recordImported(int count) {
+        imported.addAndGet(count);
+    }
+
+    void recordRejected(long lineNumber, String reason) {
+        if (rejected.incrementAndGet() <= MAX_REPORTED_REJECTIONS) {
+            rejections.add("line " + lineNumber + ": " + reason);
+        }
+    }
+
+    void finish() {
+        finishNanos = System.nanoTime();
+    }
+
+    @Override
+    public String toString() {
+        return "ImportReport{"
+                + "type=" + type
+                + ", read=" + read
+                + ", imported=" + imported
+                + ", rejected=" + rejected
+                + ", elapsedMillis=" + getElapsedMillis()
+                + ", rowsPerSecond=" + getRowsPerSecond()
+                + '}';
+    }
+}
@@ -0,0 +1,7 @@
+package taxi.bulk;
+
+public enum ImportType {
+    DRIVERS,
+    MANUFACTURERS,
+    CARS
+}
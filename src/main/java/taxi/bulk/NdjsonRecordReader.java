@@ -0,0 +1,55 @@
+package taxi.bulk;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Newline delimited JSON reader, one flat object per line. Nested values
+ * are skipped, scalar values are read as text.
+ */
+public class NdjsonRecordReader implements RecordReader {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private final JsonParser parser;
+
+    public NdjsonRecordReader(Reader reader) throws IOException {
+        parser = JSON_FACTORY.createParser(reader);
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected a JSON object per line");
+        }
+        Map<String, String> record = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName().toLowerCase();
+            JsonToken value = parser.nextToken();
+            if (value.isStructStart()) {
+                parser.skipChildren();
+            } else if (value != JsonToken.VALUE_NULL) {
+                record.put(name, parser.getText());
+            }
+        }
+        return record;
+    }
+
+    @Override
+    public long getLineNumber() {
+        return parser.getCurrentLocation().getLineNr();
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
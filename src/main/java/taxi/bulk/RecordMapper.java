@@ -0,0 +1,20 @@
+package taxi.bulk;
+
+import java.util.Map;
+
+/**
+ * Turns a raw record into an entity. Invalid records are reported with an
+ * {@link IllegalArgumentException} and skipped by the import.
+ */
+@FunctionalInterface
+public interface RecordMapper<T> {
+    T map(Map<String, String> record);
+
+    static String required(Map<String, String> record, String field) {
+        String value = record.get(field);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Field " + field + " is required");
+        }
+        return value.trim();
+    }
+}
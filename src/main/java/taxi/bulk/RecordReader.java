@@ -0,0 +1,26 @@
+package taxi.bulk;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Map;
+
+/**
+ * Reads one flat record at a time, field name to raw text value, so an
+ * import never holds more than the current record of the input in memory.
+ */
+public interface RecordReader extends Closeable {
+    Map<String, String> next() throws IOException;
+
+    long getLineNumber();
+
+    static RecordReader of(ImportFormat format, Reader reader) throws IOException {
+        switch (format) {
+            case NDJSON:
+                return new NdjsonRecordReader(reader);
+            case CSV:
+            default:
+                return new CsvRecordReader(reader);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package taxi.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.Part;
+import taxi.bulk.ImportFormat;
+import taxi.bulk.ImportReport;
+import taxi.bulk.ImportType;
+import taxi.lib.Injector;
+import taxi.service.ImportService;
+
+public class ImportController extends HttpServlet {
+    private static final Injector injector = Injector.getInstance("taxi");
+    private final ImportService importService = (ImportService) injector
+            .getInstance(ImportService.class);
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+        req.getRequestDispatcher("/WEB-INF/views/import.jsp").forward(req, resp);
+    }
+
+    /**
+     * Accepts either a multipart form with a {@code file} part or the raw
+     * file as request body, in both cases the upload is read as a stream.
+     */
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+        String typeParameter = req.getParameter("type");
+        if (typeParameter == null) {
+            sendBadRequest(resp);
+            return;
+        }
+        String contentType = req.getContentType();
+        Part file = null;
+        if (contentType != null && contentType.startsWith("multipart/form-data")) {
+            file = req.getPart("file");
+            if (file == null) {
+                resp.sendError(HttpServletResponse.SC_BAD_REQUEST, "Part file is missing");
+                return;
+            }
+        }
+        ImportType type;
+        ImportFormat format;
+        try {
+            type = ImportType.valueOf(typeParameter.toUpperCase());
+            format = parseFormat(req.getParameter("format"),
+                    file == null ? "" : file.getSubmittedFileName());
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(resp);
+            return;
+        }
+        InputStream input = file == null ? req.getInputStream() : file.getInputStream();
+        try (Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8)) {
+            ImportReport report = importService.importData(type, format, reader,
+                    progress -> { });
+            resp.setContentType("text/plain;charset=UTF-8");
+            PrintWriter writer = resp.getWriter();
+            writer.println(report);
+            report.getRejections().forEach(writer::println);
+        }
+    }
+
+    private void sendBadRequest(HttpServletResponse resp) throws IOException {
+        resp.sendError(HttpServletResponse.SC_BAD_REQUEST,
+                "Parameter type must be one of drivers, manufacturers, cars "
+                        + "and format one of csv, ndjson");
+    }
+
+    private ImportFormat parseFormat(String format, String fileName) {
+        if (format == null || format.isBlank()) {
+            return ImportFormat.fromFileName(fileName == null ? "" : fileName);
+        }
+        return ImportFormat.valueOf(format.toUpperCase());
+    }
+}
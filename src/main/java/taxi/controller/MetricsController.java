@@ -0,0 +1,169 @@
+package taxi.controller;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import taxi.dao.CachingManufacturerDao;
+import taxi.dao.ManufacturerDao;
+import taxi.lib.Injector;
+import taxi.metrics.DaoTimings;
+import taxi.metrics.EndpointTimings;
+import taxi.metrics.PrometheusWriter;
+import taxi.util.ConnectionUtil;
+import taxi.util.DaoExecutor;
+import taxi.util.PoolStats;
+import taxi.util.SqlTrace;
+import taxi.util.TracingJdbc;
+import taxi.util.TransactionManager;
+
+/**
+ * Exposes request phase and DAO call latencies, SQL statement, connection
+ * pool, transaction, cache and DAO executor figures in the Prometheus text
+ * format, for a scraper to poll.
+ */
+public class MetricsController extends HttpServlet {
+    private static final Injector injector = Injector.getInstance("taxi");
+    private static final double MICROS_PER_SECOND = TimeUnit.SECONDS.toMicros(1);
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        resp.setContentType(PrometheusWriter.CONTENT_TYPE);
+        resp.setHeader("Cache-Control", "no-store");
+        PrometheusWriter metrics = new PrometheusWriter(resp.getWriter());
+        writeDaoTimings(metrics);
+        writeEndpoints(metrics);
+        writeSql(metrics);
+        writePools(metrics);
+        writeTransactions(metrics);
+        writeCache(metrics);
+        writeExecutor(metrics);
+    }
+
+    private void writeDaoTimings(PrometheusWriter metrics) {
+        metrics.header("taxi_dao_call_seconds", "summary", "DAO method call latency.");
+        for (DaoTimings.Timer timer : DaoTimings.getAll().values()) {
+            metrics.summaryInSeconds("taxi_dao_call_seconds", timer.getNanos(),
+                    "dao", timer.getDao(), "method", timer.getMethod());
+        }
+        metrics.header("taxi_dao_call_max_seconds", "gauge", "Slowest DAO method call.");
+        for (DaoTimings.Timer timer : DaoTimings.getAll().values()) {
+            metrics.sample("taxi_dao_call_max_seconds",
+                    timer.getNanos().getMax() / NANOS_PER_SECOND,
+                    "dao", timer.getDao(), "method", timer.getMethod());
+        }
+        metrics.header("taxi_dao_call_errors_total", "counter",
+                "DAO method calls that threw an exception.");
+        for (DaoTimings.Timer timer : DaoTimings.getAll().values()) {
+            metrics.sample("taxi_dao_call_errors_total", timer.getErrorCount(),
+                    "dao", timer.getDao(), "method", timer.getMethod());
+        }
+    }
+
+    private void writeEndpoints(PrometheusWriter metrics) {
+        metrics.header("taxi_http_request_phase_seconds", "summary",
+                "Time spent per request phase, by servlet mapping.");
+        for (EndpointTimings.Phase phase : EndpointTimings.getAll().values()) {
+            metrics.summaryInSeconds("taxi_http_request_phase_seconds", phase.getNanos(),
+                    "endpoint", phase.getEndpoint(), "phase", phase.getName());
+        }
+    }
+
+    private void writeSql(PrometheusWriter metrics) {
+        metrics.header("taxi_sql_statement_seconds", "summary",
+                "Execution time of JDBC statements.");
+        metrics.summaryInSeconds("taxi_sql_statement_seconds", TracingJdbc.getStatementNanos());
+        metrics.header("taxi_sql_slow_statements_total", "counter",
+                "Statements written to the slow query log.");
+        metrics.sample("taxi_sql_slow_statements_total", TracingJdbc.getSlowStatementCount());
+        metrics.header("taxi_request_sql_statements", "summary",
+                "Statements run per HTTP request.");
+        metrics.summary("taxi_request_sql_statements", SqlTrace.getStatementsPerRequest());
+        metrics.header("taxi_request_sql_connections", "summary",
+                "Connections borrowed per HTTP request.");
+        metrics.summary("taxi_request_sql_connections", SqlTrace.getConnectionsPerRequest());
+    }
+
+    private void writePools(PrometheusWriter metrics) {
+        PoolStats primary = ConnectionUtil.getPoolStats();
+        List<PoolStats> replicas = ConnectionUtil.getReplicaPoolStats();
+        metrics.header("taxi_pool_connections", "gauge",
+                "Pooled connections by state.");
+        writePool(metrics, "primary", primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            writePool(metrics, "replica-" + (i + 1), replicas.get(i));
+        }
+        metrics.header("taxi_pool_waiting_threads", "gauge",
+                "Threads waiting for a connection.");
+        metrics.sample("taxi_pool_waiting_threads", primary.getWaiting(), "pool", "primary");
+        for (int i = 0; i < replicas.size(); i++) {
+            metrics.sample("taxi_pool_waiting_threads", replicas.get(i).getWaiting(),
+                    "pool", "replica-" + (i + 1));
+        }
+        metrics.header("taxi_pool_max_connections", "gauge", "Maximum pool size.");
+        metrics.sample("taxi_pool_max_connections", primary.getMaxSize(), "pool", "primary");
+        for (int i = 0; i < replicas.size(); i++) {
+            metrics.sample("taxi_pool_max_connections", replicas.get(i).getMaxSize(),
+                    "pool", "replica-" + (i + 1));
+        }
+    }
+
+    private void writePool(PrometheusWriter metrics, String pool, PoolStats stats) {
+        metrics.sample("taxi_pool_connections", stats.getActive(),
+                "pool", pool, "state", "active");
+        metrics.sample("taxi_pool_connections", stats.getIdle(),
+                "pool", pool, "state", "idle");
+    }
+
+    private void writeTransactions(PrometheusWriter metrics) {
+        metrics.header("taxi_transactions_total", "counter", "Finished transactions.");
+        metrics.sample("taxi_transactions_total", TransactionManager.getCommitCount(),
+                "outcome", "commit");
+        metrics.sample("taxi_transactions_total", TransactionManager.getRollbackCount(),
+                "outcome", "rollback");
+        metrics.header("taxi_transaction_commit_average_seconds", "gauge",
+                "Average time spent in commit.");
+        metrics.sample("taxi_transaction_commit_average_seconds",
+                TransactionManager.getAverageCommitMicros() / MICROS_PER_SECOND);
+        metrics.header("taxi_transaction_commit_max_seconds", "gauge",
+                "Slowest commit.");
+        metrics.sample("taxi_transaction_commit_max_seconds",
+                TransactionManager.getMaxCommitMicros() / MICROS_PER_SECOND);
+    }
+
+    private void writeCache(PrometheusWriter metrics) {
+        Object manufacturerDao = injector.getInstance(ManufacturerDao.class);
+        if (!(manufacturerDao instanceof CachingManufacturerDao)) {
+            return;
+        }
+        CachingManufacturerDao cache = (CachingManufacturerDao) manufacturerDao;
+        metrics.header("taxi_cache_requests_total", "counter", "Cache lookups by result.");
+        metrics.sample("taxi_cache_requests_total", cache.getHitCount(),
+                "cache", "manufacturers", "result", "hit");
+        metrics.sample("taxi_cache_requests_total", cache.getMissCount(),
+                "cache", "manufacturers", "result", "miss");
+        metrics.header("taxi_cache_evictions_total", "counter", "Evicted cache entries.");
+        metrics.sample("taxi_cache_evictions_total", cache.getEvictionCount(),
+                "cache", "manufacturers");
+        metrics.header("taxi_cache_size", "gauge", "Cached entries.");
+        metrics.sample("taxi_cache_size", cache.getSize(), "cache", "manufacturers");
+    }
+
+    private void writeExecutor(PrometheusWriter metrics) {
+        String mode = DaoExecutor.getMode().name().toLowerCase();
+        metrics.header("taxi_dao_executor_threads", "gauge",
+                "Threads or permits running DAO work.");
+        metrics.sample("taxi_dao_executor_threads", DaoExecutor.getThreadCount(),
+                "mode", mode);
+        metrics.header("taxi_dao_executor_queued", "gauge", "DAO tasks waiting to run.");
+        metrics.sample("taxi_dao_executor_queued", DaoExecutor.getQueuedCount(),
+                "mode", mode);
+        metrics.header("taxi_dao_executor_rejected_total", "counter",
+                "DAO tasks turned away because the queue was full.");
+        metrics.sample("taxi_dao_executor_rejected_total", DaoExecutor.getRejectedCount(),
+                "mode", mode);
+    }
+}
@@ -0,0 +1,115 @@
+package taxi.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Serves the files under {@code /WEB-INF/static/} at {@code /static/} with
+ * a hash of their content in the name, e.g. {@code css/table_dark.css} as
+ * {@code /static/css/table_dark.1a2b3c4d5e.css}. As a name never changes
+ * its content, browsers may keep it for a year without asking again. Pages
+ * find the current names in the {@value #ASSETS_ATTRIBUTE} context attribute.
+ */
+public class StaticResourceController extends HttpServlet {
+    public static final String ASSETS_ATTRIBUTE = "assets";
+    private static final String SOURCE_DIRECTORY = "/WEB-INF/static/";
+    private static final String URL_PREFIX = "/static/";
+    private static final int FINGERPRINT_LENGTH = 10;
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private final Map<String, Asset> assetsByPath = new HashMap<>();
+
+    @Override
+    public void init() throws ServletException {
+        Map<String, String> urls = new HashMap<>();
+        try {
+            loadAssets(getServletContext(), SOURCE_DIRECTORY, urls);
+        } catch (IOException e) {
+            throw new ServletException("Can't load static assets", e);
+        }
+        getServletContext().setAttribute(ASSETS_ATTRIBUTE, Collections.unmodifiableMap(urls));
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        Asset asset = req.getPathInfo() == null ? null
+                : assetsByPath.get(req.getPathInfo().substring(1));
+        if (asset == null) {
+            resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        resp.setHeader("Cache-Control", IMMUTABLE);
+        resp.setHeader("ETag", asset.etag);
+        if (asset.etag.equals(req.getHeader("If-None-Match"))) {
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        resp.setContentType(asset.contentType);
+        resp.setContentLength(asset.content.length);
+        resp.getOutputStream().write(asset.content);
+    }
+
+    private void loadAssets(ServletContext context, String directory, Map<String, String> urls)
+            throws IOException {
+        Set<String> paths = context.getResourcePaths(directory);
+        if (paths == null) {
+            return;
+        }
+        for (String path : paths) {
+            if (path.endsWith("/")) {
+                loadAssets(context, path, urls);
+                continue;
+            }
+            byte[] content;
+            try (InputStream input = context.getResourceAsStream(path)) {
+                content = input.readAllBytes();
+            }
+            String name = path.substring(SOURCE_DIRECTORY.length());
+            String fingerprint = fingerprint(content);
+            int extension = name.lastIndexOf('.');
+            String fingerprinted = extension > name.lastIndexOf('/')
+                    ? name.substring(0, extension) + "." + fingerprint + name.substring(extension)
+                    : name + "." + fingerprint;
+            String contentType = context.getMimeType(name);
+            assetsByPath.put(fingerprinted, new Asset(content,
+                    contentType == null ? "application/octet-stream" : contentType,
+                    "\"" + fingerprint + "\""));
+            urls.put(name, URL_PREFIX + fingerprinted);
+        }
+    }
+
+    private String fingerprint(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; hex.length() < FINGERPRINT_LENGTH; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 is not available", e);
+        }
+    }
+
+    private static class Asset {
+        private final byte[] content;
+        private final String contentType;
+        private final String etag;
+
+        private Asset(byte[] content, String contentType, String etag) {
+            this.content = content;
+            this.contentType = contentType;
+            this.etag = etag;
+        }
+    }
+}
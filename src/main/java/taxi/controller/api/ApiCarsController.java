@@ -0,0 +1,69 @@
+package taxi.controller.api;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import taxi.lib.Injector;
+import taxi.model.Car;
+import taxi.model.Driver;
+import taxi.model.Manufacturer;
+import taxi.model.Page;
+import taxi.model.PageRequest;
+import taxi.service.CarService;
+import taxi.util.TableVersions;
+
+public class ApiCarsController extends JsonListController<Car> {
+    private static final Injector injector = Injector.getInstance("taxi");
+    private static final TableVersions.Table[] TABLES = {TableVersions.Table.CARS,
+            TableVersions.Table.DRIVERS, TableVersions.Table.MANUFACTURERS};
+    private static final Map<String, FieldWriter<Car>> FIELD_WRITERS;
+    private final CarService carService = (CarService) injector
+            .getInstance(CarService.class);
+
+    static {
+        Map<String, FieldWriter<Car>> fieldWriters = new LinkedHashMap<>();
+        fieldWriters.put("id", (json, car) -> writeLongField(json, "id", car.getId()));
+        fieldWriters.put("model", (json, car) -> json.writeStringField("model", car.getModel()));
+        fieldWriters.put("manufacturer", (json, car) -> {
+            Manufacturer manufacturer = car.getManufacturer();
+            if (manufacturer == null) {
+                json.writeNullField("manufacturer");
+                return;
+            }
+            json.writeObjectFieldStart("manufacturer");
+            writeLongField(json, "id", manufacturer.getId());
+            json.writeStringField("name", manufacturer.getName());
+            json.writeStringField("country", manufacturer.getCountry());
+            json.writeEndObject();
+        });
+        fieldWriters.put("drivers", (json, car) -> {
+            json.writeArrayFieldStart("drivers");
+            if (car.getDrivers() != null) {
+                for (Driver driver : car.getDrivers()) {
+                    json.writeStartObject();
+                    writeLongField(json, "id", driver.getId());
+                    json.writeStringField("name", driver.getName());
+                    json.writeStringField("licenseNumber", driver.getLicenseNumber());
+                    json.writeEndObject();
+                }
+            }
+            json.writeEndArray();
+        });
+        FIELD_WRITERS = Collections.unmodifiableMap(fieldWriters);
+    }
+
+    @Override
+    protected Page<Car> getPage(PageRequest pageRequest) {
+        return carService.getPage(pageRequest);
+    }
+
+    @Override
+    protected TableVersions.Table[] getTables() {
+        return TABLES;
+    }
+
+    @Override
+    protected Map<String, FieldWriter<Car>> getFieldWriters() {
+        return FIELD_WRITERS;
+    }
+}
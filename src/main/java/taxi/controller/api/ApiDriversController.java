@@ -0,0 +1,46 @@
+package taxi.controller.api;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import taxi.lib.Injector;
+import taxi.model.Driver;
+import taxi.model.Page;
+import taxi.model.PageRequest;
+import taxi.service.DriverService;
+import taxi.util.TableVersions;
+
+public class ApiDriversController extends JsonListController<Driver> {
+    private static final Injector injector = Injector.getInstance("taxi");
+    private static final TableVersions.Table[] TABLES = {TableVersions.Table.DRIVERS};
+    private static final Map<String, FieldWriter<Driver>> FIELD_WRITERS;
+    private final DriverService driverService = (DriverService) injector
+            .getInstance(DriverService.class);
+
+    static {
+        Map<String, FieldWriter<Driver>> fieldWriters = new LinkedHashMap<>();
+        fieldWriters.put("id", (json, driver) -> writeLongField(json, "id", driver.getId()));
+        fieldWriters.put("name", (json, driver) ->
+                json.writeStringField("name", driver.getName()));
+        fieldWriters.put("licenseNumber", (json, driver) ->
+                json.writeStringField("licenseNumber", driver.getLicenseNumber()));
+        fieldWriters.put("login", (json, driver) ->
+                json.writeStringField("login", driver.getLogin()));
+        FIELD_WRITERS = Collections.unmodifiableMap(fieldWriters);
+    }
+
+    @Override
+    protected Page<Driver> getPage(PageRequest pageRequest) {
+        return driverService.getPage(pageRequest);
+    }
+
+    @Override
+    protected TableVersions.Table[] getTables() {
+        return TABLES;
+    }
+
+    @Override
+    protected Map<String, FieldWriter<Driver>> getFieldWriters() {
+        return FIELD_WRITERS;
+    }
+}
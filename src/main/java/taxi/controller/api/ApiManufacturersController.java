@@ -0,0 +1,45 @@
+package taxi.controller.api;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import taxi.lib.Injector;
+import taxi.model.Manufacturer;
+import taxi.model.Page;
+import taxi.model.PageRequest;
+import taxi.service.ManufacturerService;
+import taxi.util.TableVersions;
+
+public class ApiManufacturersController extends JsonListController<Manufacturer> {
+    private static final Injector injector = Injector.getInstance("taxi");
+    private static final TableVersions.Table[] TABLES = {TableVersions.Table.MANUFACTURERS};
+    private static final Map<String, FieldWriter<Manufacturer>> FIELD_WRITERS;
+    private final ManufacturerService manufacturerService = (ManufacturerService) injector
+            .getInstance(ManufacturerService.class);
+
+    static {
+        Map<String, FieldWriter<Manufacturer>> fieldWriters = new LinkedHashMap<>();
+        fieldWriters.put("id", (json, manufacturer) ->
+                writeLongField(json, "id", manufacturer.getId()));
+        fieldWriters.put("name", (json, manufacturer) ->
+                json.writeStringField("name", manufacturer.getName()));
+        fieldWriters.put("country", (json, manufacturer) ->
+                json.writeStringField("country", manufacturer.getCountry()));
+        FIELD_WRITERS = Collections.unmodifiableMap(fieldWriters);
+    }
+
+    @Override
+    protected Page<Manufacturer> getPage(PageRequest pageRequest) {
+        return manufacturerService.getPage(pageRequest);
+    }
+
+    @Override
+    protected TableVersions.Table[] getTables() {
+        return TABLES;
+    }
+
+    @Override
+    protected Map<String, FieldWriter<Manufacturer>> getFieldWriters() {
+        return FIELD_WRITERS;
+    }
+}
@@ -0,0 +1,130 @@
+package taxi.controller.api;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import taxi.model.Page;
+import taxi.model.PageRequest;
+import taxi.util.TableVersions;
+import taxi.web.AsyncDao;
+import taxi.web.ConditionalGet;
+import taxi.web.PageRequestParser;
+
+/**
+ * Writes a page of entities as JSON straight to the response stream with the
+ * jackson-core generator, without building a tree or a string first.
+ * Supports the keyset pagination parameters of the HTML lists and
+ * {@code fields=a,b} to pick which fields are written. The page is read on
+ * the DAO executor and written once the request is dispatched back here.
+ */
+public abstract class JsonListController<T> extends HttpServlet {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    private static final String FIELDS_PARAMETER = "fields";
+    private static final String PAGE_ATTRIBUTE = "page";
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        List<FieldWriter<T>> fieldWriters;
+        PageRequest pageRequest;
+        try {
+            fieldWriters = selectFields(req.getParameter(FIELDS_PARAMETER));
+            pageRequest = PageRequestParser.parse(req);
+        } catch (IllegalArgumentException e) {
+            resp.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        if (req.getDispatcherType() == DispatcherType.ASYNC) {
+            @SuppressWarnings("unchecked")
+            Page<T> page = (Page<T>) req.getAttribute(PAGE_ATTRIBUTE);
+            writePage(resp, page, fieldWriters);
+            return;
+        }
+        if (ConditionalGet.isNotModified(req, resp, getTables())) {
+            return;
+        }
+        AsyncDao.dispatch(req, resp, null,
+                () -> req.setAttribute(PAGE_ATTRIBUTE, getPage(pageRequest)));
+    }
+
+    protected abstract Page<T> getPage(PageRequest pageRequest);
+
+    /**
+     * The tables the items are read from, their versions make up the ETag.
+     */
+    protected abstract TableVersions.Table[] getTables();
+
+    /**
+     * Writers of every field an item can have, by field name, in output order.
+     */
+    protected abstract Map<String, FieldWriter<T>> getFieldWriters();
+
+    static void writeLongField(JsonGenerator json, String name, Long value)
+            throws IOException {
+        if (value == null) {
+            json.writeNullField(name);
+        } else {
+            json.writeNumberField(name, value);
+        }
+    }
+
+    private void writePage(HttpServletResponse resp, Page<T> page,
+                           List<FieldWriter<T>> fieldWriters) throws IOException {
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding("UTF-8");
+        try (JsonGenerator json = JSON_FACTORY.createGenerator(resp.getOutputStream(),
+                JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("items");
+            for (T item : page.getItems()) {
+                json.writeStartObject();
+                for (FieldWriter<T> fieldWriter : fieldWriters) {
+                    fieldWriter.write(json, item);
+                }
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            writeLongField(json, "previousCursor", page.getPreviousCursor());
+            writeLongField(json, "nextCursor", page.getNextCursor());
+            json.writeBooleanField("hasPrevious", page.hasPrevious());
+            json.writeBooleanField("hasNext", page.hasNext());
+            json.writeEndObject();
+        }
+    }
+
+    private List<FieldWriter<T>> selectFields(String fields) {
+        Map<String, FieldWriter<T>> fieldWriters = getFieldWriters();
+        if (fields == null || fields.isBlank()) {
+            return new ArrayList<>(fieldWriters.values());
+        }
+        Set<String> selected = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .collect(Collectors.toSet());
+        for (String field : selected) {
+            if (!fieldWriters.containsKey(field)) {
+                throw new IllegalArgumentException("Unknown field " + field
+                        + ", expected one of " + fieldWriters.keySet());
+            }
+        }
+        Map<String, FieldWriter<T>> selectedWriters = new LinkedHashMap<>(fieldWriters);
+        selectedWriters.keySet().retainAll(selected);
+        return new ArrayList<>(selectedWriters.values());
+    }
+
+    @FunctionalInterface
+    protected interface FieldWriter<T> {
+        void write(JsonGenerator json, T item) throws IOException;
+    }
+}
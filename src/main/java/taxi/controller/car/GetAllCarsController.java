@@ -1,14 +1,20 @@
 package taxi.controller.car;
 
 import java.io.IOException;
-import java.util.List;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import taxi.exception.InvalidPageRequestException;
 import taxi.lib.Injector;
 import taxi.model.Car;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 import taxi.service.CarService;
+import taxi.util.TableVersions;
+import taxi.web.AsyncDao;
+import taxi.web.ConditionalGet;
+import taxi.web.PageRequestParser;
 
 public class GetAllCarsController extends HttpServlet {
     private static final Injector injector = Injector.getInstance("taxi");
@@ -18,8 +24,22 @@ public class GetAllCarsController extends HttpServlet {
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp)
             throws ServletException, IOException {
-        List<Car> allCars = carService.getAll();
-        req.setAttribute("cars", allCars);
-        req.getRequestDispatcher("/WEB-INF/views/cars/all.jsp").forward(req, resp);
+        PageRequest pageRequest;
+        try {
+            pageRequest = PageRequestParser.parse(req);
+        } catch (InvalidPageRequestException e) {
+            resp.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        if (ConditionalGet.isNotModified(req, resp, TableVersions.Table.CARS,
+                TableVersions.Table.DRIVERS, TableVersions.Table.MANUFACTURERS)) {
+            return;
+        }
+        AsyncDao.dispatch(req, resp, "/WEB-INF/views/cars/all.jsp", () -> {
+            Page<Car> page = carService.getPage(pageRequest);
+            req.setAttribute("cars", page.getItems());
+            req.setAttribute("page", page);
+            req.setAttribute("pageRequest", pageRequest);
+        });
     }
 }
@@ -1,14 +1,20 @@
 package taxi.controller.driver;
 
 import java.io.IOException;
-import java.util.List;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import taxi.exception.InvalidPageRequestException;
 import taxi.lib.Injector;
 import taxi.model.Driver;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 import taxi.service.DriverService;
+import taxi.util.TableVersions;
+import taxi.web.AsyncDao;
+import taxi.web.ConditionalGet;
+import taxi.web.PageRequestParser;
 
 public class GetAllDriversController extends HttpServlet {
     private static final Injector injector = Injector.getInstance("taxi");
@@ -18,8 +24,21 @@ public class GetAllDriversController extends HttpServlet {
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp)
             throws ServletException, IOException {
-        List<Driver> allDrivers = driverService.getAll();
-        req.setAttribute("drivers", allDrivers);
-        req.getRequestDispatcher("/WEB-INF/views/drivers/all.jsp").forward(req, resp);
+        PageRequest pageRequest;
+        try {
+            pageRequest = PageRequestParser.parse(req);
+        } catch (InvalidPageRequestException e) {
+            resp.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        if (ConditionalGet.isNotModified(req, resp, TableVersions.Table.DRIVERS)) {
+            return;
+        }
+        AsyncDao.dispatch(req, resp, "/WEB-INF/views/drivers/all.jsp", () -> {
+            Page<Driver> page = driverService.getPage(pageRequest);
+            req.setAttribute("drivers", page.getItems());
+            req.setAttribute("page", page);
+            req.setAttribute("pageRequest", pageRequest);
+        });
     }
 }
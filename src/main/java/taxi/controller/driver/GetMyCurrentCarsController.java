@@ -9,6 +9,10 @@ import javax.servlet.http.HttpServletResponse;
 import taxi.lib.Injector;
 import taxi.model.Car;
 import taxi.service.CarService;
+import taxi.util.TableVersions;
+import taxi.web.AsyncDao;
+import taxi.web.AuthCookie;
+import taxi.web.ConditionalGet;
 
 public class GetMyCurrentCarsController extends HttpServlet {
     private static final Injector injector = Injector.getInstance("taxi");
@@ -18,9 +22,14 @@ public class GetMyCurrentCarsController extends HttpServlet {
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp)
             throws ServletException, IOException {
-        Long driverId = (Long) req.getSession().getAttribute("user_id");
-        List<Car> allCars = carService.getAllByDriver(driverId);
-        req.setAttribute("cars", allCars);
-        req.getRequestDispatcher("/WEB-INF/views/cars/all.jsp").forward(req, resp);
+        if (ConditionalGet.isNotModified(req, resp, TableVersions.Table.CARS,
+                TableVersions.Table.DRIVERS, TableVersions.Table.MANUFACTURERS)) {
+            return;
+        }
+        Long driverId = (Long) req.getAttribute(AuthCookie.USER_ID_ATTRIBUTE);
+        AsyncDao.dispatch(req, resp, "/WEB-INF/views/cars/all.jsp", () -> {
+            List<Car> allCars = carService.getAllByDriver(driverId);
+            req.setAttribute("cars", allCars);
+        });
     }
 }
@@ -0,0 +1,87 @@
+package taxi.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import taxi.exception.DataProcessingException;
+import taxi.util.ConnectionUtil;
+import taxi.util.TransactionManager;
+
+/**
+ * JDBC batching for createAll. Elements are written in chunks of
+ * {@code taxi.db.batch.size} rows, each chunk in its own transaction, so a
+ * failure only loses the chunk that failed. On MySQL the driver rewrites
+ * every batch into multi-row INSERT statements.
+ */
+class BatchInsert {
+    private static final int DEFAULT_CHUNK_SIZE = 500;
+    private static final int CHUNK_SIZE = Math.max(1,
+            Integer.getInteger("taxi.db.batch.size", DEFAULT_CHUNK_SIZE));
+
+    static <T> void inChunks(List<T> elements, Consumer<List<T>> chunkWriter) {
+        for (int from = 0; from < elements.size(); from += CHUNK_SIZE) {
+            List<T> chunk = elements.subList(from, Math.min(from + CHUNK_SIZE, elements.size()));
+            TransactionManager.runInTransaction(() -> chunkWriter.accept(chunk));
+        }
+    }
+
+    /**
+     * Inserts the chunk in one batch and hands every element its generated
+     * key, keys come back in the order the rows were added to the batch.
+     */
+    static <T> void insert(String query, List<T> chunk, StatementBinder<T> binder,
+                           BiConsumer<T, Long> idSetter) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement batchStatement = connection.prepareStatement(query,
+                        Statement.RETURN_GENERATED_KEYS)) {
+            for (T element : chunk) {
+                binder.bind(batchStatement, element);
+                batchStatement.addBatch();
+            }
+            batchStatement.executeBatch();
+            try (ResultSet resultSet = batchStatement.getGeneratedKeys()) {
+                int keys = 0;
+                while (keys < chunk.size() && resultSet.next()) {
+                    idSetter.accept(chunk.get(keys++), resultSet.getObject(1, Long.class));
+                }
+                if (keys < chunk.size()) {
+                    throw new DataProcessingException("Expected " + chunk.size()
+                            + " generated keys but got " + keys + " with " + query);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataProcessingException("Couldn't batch insert " + chunk.size()
+                    + " rows with " + query, e);
+        }
+    }
+
+    static <T> void insert(String query, List<T> chunk, StatementBinder<T> binder) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement batchStatement = connection.prepareStatement(query)) {
+            for (T element : chunk) {
+                binder.bind(batchStatement, element);
+                batchStatement.addBatch();
+            }
+            batchStatement.executeBatch();
+        } catch (SQLException e) {
+            throw new DataProcessingException("Couldn't batch insert " + chunk.size()
+                    + " rows with " + query, e);
+        }
+    }
+
+    @FunctionalInterface
+    interface StatementBinder<T> {
+        void bind(PreparedStatement statement, T element) throws SQLException;
+    }
+}
@@ -0,0 +1,146 @@
+package taxi.dao;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import taxi.lib.Decorator;
+import taxi.model.Manufacturer;
+import taxi.model.Page;
+import taxi.model.PageRequest;
+import taxi.util.TableVersions;
+import taxi.util.TransactionManager;
+
+/**
+ * Read-through cache for {@link ManufacturerDao#get}. Entries expire after
+ * {@code taxi.cache.manufacturers.ttlSeconds} and the cache holds at most
+ * {@code taxi.cache.manufacturers.maxSize} of them, 0 turns caching off.
+ * Updates and deletes invalidate the entry, inside a transaction once it
+ * commits. Reads inside a transaction bypass the cache so uncommitted rows
+ * never land in it. Misses aren't cached either while a replica may still
+ * serve the previous version of a changed manufacturer, see
+ * {@link TableVersions#isSettled}. Callers get copies, so changing a
+ * returned manufacturer doesn't change the cached one.
+ */
+@Decorator
+public class CachingManufacturerDao implements ManufacturerDao {
+    private static final long DEFAULT_MAX_SIZE = 10_000;
+    private static final long DEFAULT_TTL_SECONDS = 300;
+    private final ManufacturerDao manufacturerDao;
+    private final Cache<Long, Manufacturer> cache;
+    private final BooleanSupplier settled;
+
+    public CachingManufacturerDao(ManufacturerDao manufacturerDao) {
+        this(manufacturerDao,
+                Long.getLong("taxi.cache.manufacturers.maxSize", DEFAULT_MAX_SIZE),
+                Duration.ofSeconds(Long.getLong("taxi.cache.manufacturers.ttlSeconds",
+                        DEFAULT_TTL_SECONDS)),
+                Ticker.systemTicker(),
+                () -> TableVersions.isSettled(TableVersions.Table.MANUFACTURERS));
+    }
+
+    CachingManufacturerDao(ManufacturerDao manufacturerDao, long maxSize, Duration ttl,
+                           Ticker ticker, BooleanSupplier settled) {
+        this.manufacturerDao = manufacturerDao;
+        this.settled = settled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Manufacturer create(Manufacturer manufacturer) {
+        return manufacturerDao.create(manufacturer);
+    }
+
+    @Override
+    public List<Manufacturer> createAll(List<Manufacturer> manufacturers) {
+        return manufacturerDao.createAll(manufacturers);
+    }
+
+    @Override
+    public Optional<Manufacturer> get(Long id) {
+        if (TransactionManager.isTransactionActive()) {
+            return manufacturerDao.get(id);
+        }
+        if (!settled.getAsBoolean()) {
+            // a miss may be served by a lagging replica, keep its row out of the cache
+            Manufacturer cached = cache.getIfPresent(id);
+            return cached != null ? Optional.of(copy(cached)) : manufacturerDao.get(id);
+        }
+        Manufacturer manufacturer = cache.get(id, key -> manufacturerDao.get(key).orElse(null));
+        return Optional.ofNullable(manufacturer).map(CachingManufacturerDao::copy);
+    }
+
+    @Override
+    public List<Manufacturer> getAll() {
+        return manufacturerDao.getAll();
+    }
+
+    @Override
+    public Page<Manufacturer> getPage(PageRequest pageRequest) {
+        return manufacturerDao.getPage(pageRequest);
+    }
+
+    @Override
+    public void streamAll(Consumer<Manufacturer> consumer) {
+        manufacturerDao.streamAll(consumer);
+    }
+
+    @Override
+    public Manufacturer update(Manufacturer manufacturer) {
+        try {
+            return manufacturerDao.update(manufacturer);
+        } finally {
+            invalidate(manufacturer.getId());
+        }
+    }
+
+    @Override
+    public boolean delete(Long id) {
+        try {
+            return manufacturerDao.delete(id);
+        } finally {
+            invalidate(id);
+        }
+    }
+
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    public long getSize() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Drops the entry once the change is committed. Invalidating inside the
+     * transaction would let another reader load the old row back before the
+     * commit, and keep it for the whole TTL.
+     */
+    private void invalidate(Long id) {
+        TransactionManager.afterCommit(() -> cache.invalidate(id));
+    }
+
+    private static Manufacturer copy(Manufacturer manufacturer) {
+        Manufacturer copy = new Manufacturer(manufacturer.getName(), manufacturer.getCountry());
+        copy.setId(manufacturer.getId());
+        return copy;
+    }
+}
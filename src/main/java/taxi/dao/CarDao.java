@@ -5,4 +5,16 @@ import taxi.model.Car;
 
 public interface CarDao extends GenericDao<Car> {
     List<Car> getAllByDriver(Long driverId);
+
+    /**
+     * Links the driver to the car. Returns {@code false} if they were linked
+     * already.
+     */
+    boolean addDriver(Long carId, Long driverId);
+
+    /**
+     * Unlinks the driver from the car. Returns {@code false} if they weren't
+     * linked.
+     */
+    boolean removeDriver(Long carId, Long driverId);
 }
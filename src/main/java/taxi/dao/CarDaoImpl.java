@@ -8,111 +8,167 @@ import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import taxi.exception.DataProcessingException;
 import taxi.lib.Dao;
 import taxi.model.Car;
 import taxi.model.Driver;
 import taxi.model.Manufacturer;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 import taxi.util.ConnectionUtil;
+import taxi.util.TableVersions;
+import taxi.util.TransactionManager;
 
 @Dao
 public class CarDaoImpl implements CarDao {
     private static final int ZERO_PLACEHOLDER = 0;
     private static final int SHIFT = 2;
+    private static final Set<String> SORT_COLUMNS = Set.of("model");
+    private static final String SELECT_CAR_COLUMNS = "SELECT c.id as id, "
+            + "c.model as model, "
+            + "c.manufacturer_id as manufacturer_id, "
+            + "m.name as manufacturer_name, "
+            + "m.country as manufacturer_country, "
+            + "d.id as driver_id, "
+            + "d.name as driver_name, "
+            + "d.license_number as driver_license_number ";
+    private static final String CAR_JOINS = " JOIN manufacturers m on c.manufacturer_id = m.id"
+            + " LEFT JOIN cars_drivers cd on c.id = cd.car_id"
+            + " LEFT JOIN drivers d on cd.driver_id = d.id and d.is_deleted = false";
+    private static final String SELECT_CARS_WITH_DRIVERS = SELECT_CAR_COLUMNS
+            + "FROM cars c" + CAR_JOINS;
+    private static final String ORDER_BY_CAR_ID = " ORDER BY c.id";
+    private static final int MYSQL_DUPLICATE_KEY = 1062;
+    private static final int H2_DUPLICATE_KEY = 23505;
 
     @Override
     public Car create(Car car) {
-        String insertQuery = "INSERT INTO cars (model, manufacturer_id)"
-                + "VALUES (?, ?)";
-        try (Connection connection = ConnectionUtil.getConnection();
-                PreparedStatement createCarStatement =
-                        connection.prepareStatement(
-                             insertQuery, Statement.RETURN_GENERATED_KEYS)) {
-            createCarStatement.setString(1, car.getModel());
-            createCarStatement.setLong(2, car.getManufacturer().getId());
-            createCarStatement.executeUpdate();
-            ResultSet resultSet = createCarStatement.getGeneratedKeys();
-            if (resultSet.next()) {
-                car.setId(resultSet.getObject(1, Long.class));
+        return TransactionManager.inTransaction(() -> {
+            insertCar(car);
+            insertDrivers(car.getId(), car.getDrivers());
+            car.markDriversPersisted();
+            TableVersions.bump(TableVersions.Table.CARS);
+            return car;
+        });
+    }
+
+    @Override
+    public List<Car> createAll(List<Car> cars) {
+        String insertCarQuery = "INSERT INTO cars (model, manufacturer_id) VALUES (?, ?)";
+        String insertLinkQuery = "INSERT INTO cars_drivers (car_id, driver_id) VALUES (?, ?)";
+        BatchInsert.inChunks(cars, chunk -> {
+            BatchInsert.insert(insertCarQuery, chunk, (statement, car) -> {
+                statement.setString(1, car.getModel());
+                statement.setLong(2, car.getManufacturer().getId());
+            }, Car::setId);
+            List<long[]> links = new ArrayList<>();
+            for (Car car : chunk) {
+                for (Driver driver : car.getDrivers()) {
+                    links.add(new long[] {car.getId(), driver.getId()});
+                }
             }
-        } catch (SQLException e) {
-            throw new DataProcessingException("Can't create car " + car, e);
-        }
-        insertAllDrivers(car);
-        return car;
+            BatchInsert.insert(insertLinkQuery, links, (statement, link) -> {
+                statement.setLong(1, link[0]);
+                statement.setLong(2, link[1]);
+            });
+            chunk.forEach(Car::markDriversPersisted);
+            TableVersions.bump(TableVersions.Table.CARS);
+        });
+        return cars;
     }
 
     @Override
     public Optional<Car> get(Long id) {
-        String selectQuery = "SELECT c.id as id, "
-                + "model, "
-                + "manufacturer_id, "
-                + "m.name as manufacturer_name, "
-                + "m.country as manufacturer_country "
-                + "FROM cars c"
-                + " JOIN manufacturers m on c.manufacturer_id = m.id"
-                + " where c.id = ? AND c.is_deleted = false";
-        Car car = null;
-        try (Connection connection = ConnectionUtil.getConnection();
+        String selectQuery = SELECT_CARS_WITH_DRIVERS
+                + " where c.id = ? AND c.is_deleted = false"
+                + ORDER_BY_CAR_ID;
+        try (Connection connection = ConnectionUtil.getReadConnection();
                 PreparedStatement getCarStatement =
                         connection.prepareStatement(selectQuery)) {
             getCarStatement.setLong(1, id);
             ResultSet resultSet = getCarStatement.executeQuery();
-            if (resultSet.next()) {
-                car = parseCarFromResultSet(resultSet);
-            }
+            return parseCarsWithDriversFromResultSet(resultSet).stream().findFirst();
         } catch (SQLException e) {
             throw new DataProcessingException("Can't get car by id: " + id, e);
         }
-        if (car != null) {
-            car.setDrivers(getAllDriversByCarId(car.getId()));
-        }
-        return Optional.ofNullable(car);
     }
 
     @Override
     public List<Car> getAll() {
-        String selectQuery = "SELECT c.id as id, "
-                + "model, "
-                + "manufacturer_id, "
-                + "m.name as manufacturer_name, "
-                + "m.country as manufacturer_country "
-                + "FROM cars c"
-                + " JOIN manufacturers m on c.manufacturer_id = m.id"
-                + " where c.is_deleted = false";
-        List<Car> cars = new ArrayList<>();
-        try (Connection connection = ConnectionUtil.getConnection();
+        String selectQuery = SELECT_CARS_WITH_DRIVERS
+                + " where c.is_deleted = false"
+                + ORDER_BY_CAR_ID;
+        try (Connection connection = ConnectionUtil.getReadConnection();
                 PreparedStatement getAllCarsStatement =
                         connection.prepareStatement(selectQuery)) {
             ResultSet resultSet = getAllCarsStatement.executeQuery();
-            while (resultSet.next()) {
-                cars.add(parseCarFromResultSet(resultSet));
-            }
+            return parseCarsWithDriversFromResultSet(resultSet);
         } catch (SQLException e) {
             throw new DataProcessingException("Can't get all cars", e);
         }
-        cars.forEach(car -> car.setDrivers(getAllDriversByCarId(car.getId())));
-        return cars;
     }
 
     @Override
-    public Car update(Car car) {
-        String selectQuery = "UPDATE cars SET model = ?, manufacturer_id = ? WHERE id = ?"
-                + " and is_deleted = false";
-        try (Connection connection = ConnectionUtil.getConnection();
-                PreparedStatement updateCarStatement =
+    public Page<Car> getPage(PageRequest pageRequest) {
+        KeysetQuery keyset = new KeysetQuery("cars", "c", SORT_COLUMNS, pageRequest);
+        String selectQuery = SELECT_CAR_COLUMNS
+                + "FROM (SELECT * FROM cars c WHERE c.is_deleted = false AND "
+                + keyset.condition() + keyset.orderBy() + keyset.limit() + ") c"
+                + CAR_JOINS
+                + keyset.orderBy();
+        try (Connection connection = ConnectionUtil.getReadConnection();
+                PreparedStatement getCarsPageStatement =
                         connection.prepareStatement(selectQuery)) {
-            updateCarStatement.setString(1, car.getModel());
-            updateCarStatement.setLong(2, car.getManufacturer().getId());
-            updateCarStatement.setLong(3, car.getId());
-            updateCarStatement.executeUpdate();
+            keyset.bind(getCarsPageStatement, 1);
+            ResultSet resultSet = getCarsPageStatement.executeQuery();
+            return keyset.toPage(parseCarsWithDriversFromResultSet(resultSet), Car::getId);
         } catch (SQLException e) {
-            throw new DataProcessingException("Can't update car " + car, e);
+            throw new DataProcessingException("Can't get page of cars " + pageRequest, e);
         }
-        deleteAllDriversExceptList(car);
-        insertAllDrivers(car);
-        return car;
+    }
+
+    @Override
+    public void streamAll(Consumer<Car> consumer) {
+        String selectQuery = SELECT_CARS_WITH_DRIVERS
+                + " where c.is_deleted = false"
+                + ORDER_BY_CAR_ID;
+        try (Connection connection = ConnectionUtil.getReadConnection();
+                PreparedStatement streamCarsStatement = connection.prepareStatement(
+                        selectQuery, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            streamCarsStatement.setFetchSize(ConnectionUtil.getStreamingFetchSize());
+            try (ResultSet resultSet = streamCarsStatement.executeQuery()) {
+                forEachCarWithDrivers(resultSet, consumer);
+            }
+        } catch (SQLException e) {
+            throw new DataProcessingException("Can't stream all cars", e);
+        }
+    }
+
+    @Override
+    public Car update(Car car) {
+        return TransactionManager.inTransaction(() -> {
+            updateCar(car);
+            Set<Long> persistedDriverIds = car.getPersistedDriverIds();
+            if (persistedDriverIds == null) {
+                deleteAllDriversExceptList(car);
+                insertDrivers(car.getId(), car.getDrivers());
+            } else {
+                List<Long> removedDriverIds = persistedDriverIds.stream()
+                        .filter(driverId -> car.getDrivers().stream()
+                                .noneMatch(driver -> driverId.equals(driver.getId())))
+                        .collect(Collectors.toList());
+                deleteDrivers(car.getId(), removedDriverIds);
+                insertDrivers(car.getId(), car.getDrivers().stream()
+                        .filter(driver -> !persistedDriverIds.contains(driver.getId()))
+                        .collect(Collectors.toList()));
+            }
+            car.markDriversPersisted();
+            TableVersions.bump(TableVersions.Table.CARS);
+            return car;
+        });
     }
 
     @Override
@@ -123,7 +179,11 @@ public class CarDaoImpl implements CarDao {
                  PreparedStatement deleteCarStatement =
                          connection.prepareStatement(selectQuery)) {
             deleteCarStatement.setLong(1, id);
-            return deleteCarStatement.executeUpdate() > 0;
+            if (deleteCarStatement.executeUpdate() == 0) {
+                return false;
+            }
+            TableVersions.bump(TableVersions.Table.CARS);
+            return true;
         } catch (SQLException e) {
             throw new DataProcessingException("Can't delete car by id " + id, e);
         }
@@ -131,36 +191,98 @@ public class CarDaoImpl implements CarDao {
 
     @Override
     public List<Car> getAllByDriver(Long driverId) {
-        String selectQuery = "SELECT c.id as id, "
-                + "model, "
-                + "manufacturer_id, "
-                + "m.name as manufacturer_name, "
-                + "m.country as manufacturer_country "
-                + "FROM cars c"
-                + " JOIN manufacturers m on c.manufacturer_id = m.id"
-                + " JOIN cars_drivers cd on c.id = cd.car_id"
-                + " JOIN drivers d on cd.driver_id = d.id"
-                + " where c.is_deleted = false and driver_id = ?"
-                + " and d.is_deleted = false";
-        List<Car> cars = new ArrayList<>();
-        try (Connection connection = ConnectionUtil.getConnection();
+        String selectQuery = SELECT_CARS_WITH_DRIVERS
+                + " where c.is_deleted = false and c.id IN ("
+                + "SELECT dc.car_id FROM cars_drivers dc"
+                + " JOIN drivers dd on dc.driver_id = dd.id"
+                + " where dc.driver_id = ? and dd.is_deleted = false)"
+                + ORDER_BY_CAR_ID;
+        try (Connection connection = ConnectionUtil.getReadConnection();
                 PreparedStatement getAllCarsByDriverStatement =
                         connection.prepareStatement(selectQuery)) {
             getAllCarsByDriverStatement.setLong(1, driverId);
             ResultSet resultSet = getAllCarsByDriverStatement.executeQuery();
-            while (resultSet.next()) {
-                cars.add(parseCarFromResultSet(resultSet));
-            }
+            return parseCarsWithDriversFromResultSet(resultSet);
         } catch (SQLException e) {
             throw new DataProcessingException("Can't get all cars", e);
         }
-        cars.forEach(car -> car.setDrivers(getAllDriversByCarId(car.getId())));
-        return cars;
     }
 
-    private void insertAllDrivers(Car car) {
-        Long carId = car.getId();
-        List<Driver> drivers = car.getDrivers();
+    @Override
+    public boolean addDriver(Long carId, Long driverId) {
+        // INSERT IGNORE would also swallow a foreign key violation
+        String insertQuery = "INSERT INTO cars_drivers (car_id, driver_id) VALUES (?, ?)";
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement addDriverStatement =
+                        connection.prepareStatement(insertQuery)) {
+            addDriverStatement.setLong(1, carId);
+            addDriverStatement.setLong(2, driverId);
+            addDriverStatement.executeUpdate();
+            TableVersions.bump(TableVersions.Table.CARS);
+            return true;
+        } catch (SQLException e) {
+            if (isDuplicateKey(e)) {
+                return false;
+            }
+            throw new DataProcessingException("Can't add driver " + driverId
+                    + " to car " + carId, e);
+        }
+    }
+
+    @Override
+    public boolean removeDriver(Long carId, Long driverId) {
+        String deleteQuery = "DELETE FROM cars_drivers WHERE car_id = ? AND driver_id = ?";
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement removeDriverStatement =
+                        connection.prepareStatement(deleteQuery)) {
+            removeDriverStatement.setLong(1, carId);
+            removeDriverStatement.setLong(2, driverId);
+            if (removeDriverStatement.executeUpdate() == 0) {
+                return false;
+            }
+            TableVersions.bump(TableVersions.Table.CARS);
+            return true;
+        } catch (SQLException e) {
+            throw new DataProcessingException("Can't remove driver " + driverId
+                    + " from car " + carId, e);
+        }
+    }
+
+    private void insertCar(Car car) {
+        String insertQuery = "INSERT INTO cars (model, manufacturer_id)"
+                + "VALUES (?, ?)";
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement createCarStatement =
+                        connection.prepareStatement(
+                             insertQuery, Statement.RETURN_GENERATED_KEYS)) {
+            createCarStatement.setString(1, car.getModel());
+            createCarStatement.setLong(2, car.getManufacturer().getId());
+            createCarStatement.executeUpdate();
+            ResultSet resultSet = createCarStatement.getGeneratedKeys();
+            if (resultSet.next()) {
+                car.setId(resultSet.getObject(1, Long.class));
+            }
+        } catch (SQLException e) {
+            throw new DataProcessingException("Can't create car " + car, e);
+        }
+    }
+
+    private void updateCar(Car car) {
+        String selectQuery = "UPDATE cars SET model = ?, manufacturer_id = ? WHERE id = ?"
+                + " and is_deleted = false";
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement updateCarStatement =
+                        connection.prepareStatement(selectQuery)) {
+            updateCarStatement.setString(1, car.getModel());
+            updateCarStatement.setLong(2, car.getManufacturer().getId());
+            updateCarStatement.setLong(3, car.getId());
+            updateCarStatement.executeUpdate();
+        } catch (SQLException e) {
+            throw new DataProcessingException("Can't update car " + car, e);
+        }
+    }
+
+    private void insertDrivers(Long carId, List<Driver> drivers) {
         if (drivers.size() == 0) {
             return;
         }
@@ -203,32 +325,66 @@ public class CarDaoImpl implements CarDao {
         }
     }
 
-    private List<Driver> getAllDriversByCarId(Long carId) {
-        String selectQuery = "SELECT id, name, license_number, login, password "
-                + "FROM cars_drivers cd "
-                + "JOIN drivers d on cd.driver_id = d.id "
-                + "where car_id = ? AND is_deleted = false";
+    private void deleteDrivers(Long carId, List<Long> driverIds) {
+        if (driverIds.isEmpty()) {
+            return;
+        }
+        String deleteQuery = "DELETE FROM cars_drivers WHERE car_id = ? AND driver_id IN ("
+                + driverIds.stream().map(driverId -> "?").collect(Collectors.joining(", "))
+                + ")";
         try (Connection connection = ConnectionUtil.getConnection();
-                PreparedStatement getDriversByCarIdStatement =
-                        connection.prepareStatement(selectQuery)) {
-            getDriversByCarIdStatement.setLong(1, carId);
-            ResultSet resultSet = getDriversByCarIdStatement.executeQuery();
-            List<Driver> drivers = new ArrayList<>();
-            while (resultSet.next()) {
-                drivers.add(parseDriverFromResultSet(resultSet));
+                PreparedStatement deleteDriversStatement =
+                        connection.prepareStatement(deleteQuery)) {
+            deleteDriversStatement.setLong(1, carId);
+            for (int i = 0; i < driverIds.size(); i++) {
+                deleteDriversStatement.setLong(i + SHIFT, driverIds.get(i));
             }
-            return drivers;
+            deleteDriversStatement.executeUpdate();
         } catch (SQLException e) {
-            throw new DataProcessingException("Can't get all drivers by car id" + carId, e);
+            throw new DataProcessingException("Can't delete drivers " + driverIds, e);
         }
     }
 
+    /**
+     * Builds the car graph from rows of {@link #SELECT_CARS_WITH_DRIVERS}.
+     * Rows of one car are always adjacent (ordered by car id or by a sort
+     * column and car id), so every car is complete as soon as the next car
+     * id shows up and a single pass is enough.
+     */
+    private void forEachCarWithDrivers(ResultSet resultSet, Consumer<Car> consumer)
+            throws SQLException {
+        Car car = null;
+        while (resultSet.next()) {
+            Long carId = resultSet.getObject("id", Long.class);
+            if (car == null || !car.getId().equals(carId)) {
+                if (car != null) {
+                    car.markDriversPersisted();
+                    consumer.accept(car);
+                }
+                car = parseCarFromResultSet(resultSet);
+                car.setDrivers(new ArrayList<>());
+            }
+            if (resultSet.getObject("driver_id", Long.class) != null) {
+                car.getDrivers().add(parseDriverFromResultSet(resultSet));
+            }
+        }
+        if (car != null) {
+            car.markDriversPersisted();
+            consumer.accept(car);
+        }
+    }
+
+    List<Car> parseCarsWithDriversFromResultSet(ResultSet resultSet)
+            throws SQLException {
+        List<Car> cars = new ArrayList<>();
+        forEachCarWithDrivers(resultSet, cars::add);
+        return cars;
+    }
+
     private Driver parseDriverFromResultSet(ResultSet resultSet) throws SQLException {
-        Long driverId = resultSet.getObject("id", Long.class);
-        String name = resultSet.getNString("name");
-        String licenseNumber = resultSet.getNString("license_number");
-        String login = resultSet.getNString("login");
-        String password = resultSet.getNString("password");
+        Long driverId = resultSet.getObject("driver_id", Long.class);
+        String name = resultSet.getNString("driver_name");
+        String licenseNumber = resultSet.getNString("driver_license_number");
         Driver driver = new Driver();
         driver.setId(driverId);
         driver.setName(name);
@@ -252,4 +408,9 @@ public class CarDaoImpl implements CarDao {
         car.setManufacturer(manufacturer);
         return car;
     }
+
+    private boolean isDuplicateKey(SQLException e) {
+        // Foreign key violations share SQLState class 23, only the vendor codes tell them apart
+        return e.getErrorCode() == MYSQL_DUPLICATE_KEY || e.getErrorCode() == H2_DUPLICATE_KEY;
+    }
 }
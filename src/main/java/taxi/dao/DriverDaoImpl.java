@@ -8,13 +8,19 @@ import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import taxi.exception.DataProcessingException;
 import taxi.lib.Dao;
 import taxi.model.Driver;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 import taxi.util.ConnectionUtil;
+import taxi.util.TableVersions;
 
 @Dao
 public class DriverDaoImpl implements DriverDao {
+    private static final Set<String> SORT_COLUMNS = Set.of("name", "login");
 
     @Override
     public Driver create(Driver driver) {
@@ -28,6 +34,7 @@ public class DriverDaoImpl implements DriverDao {
             createDriverStatement.setString(3, driver.getLogin());
             createDriverStatement.setString(4, driver.getPassword());
             createDriverStatement.executeUpdate();
+            TableVersions.bump(TableVersions.Table.DRIVERS);
             ResultSet resultSet = createDriverStatement.getGeneratedKeys();
             if (resultSet.next()) {
                 driver.setId(resultSet.getObject(1, Long.class));
@@ -39,10 +46,26 @@ public class DriverDaoImpl implements DriverDao {
         }
     }
 
+    @Override
+    public List<Driver> createAll(List<Driver> drivers) {
+        String query = "INSERT INTO drivers (name, license_number, login, password) "
+                + "VALUES (?, ?, ?, ?)";
+        BatchInsert.inChunks(drivers, chunk -> {
+            BatchInsert.insert(query, chunk, (statement, driver) -> {
+                statement.setString(1, driver.getName());
+                statement.setString(2, driver.getLicenseNumber());
+                statement.setString(3, driver.getLogin());
+                statement.setString(4, driver.getPassword());
+            }, Driver::setId);
+            TableVersions.bump(TableVersions.Table.DRIVERS);
+        });
+        return drivers;
+    }
+
     @Override
     public Optional<Driver> get(Long id) {
         String query = "SELECT * FROM drivers WHERE id = ? AND is_deleted = FALSE";
-        try (Connection connection = ConnectionUtil.getConnection();
+        try (Connection connection = ConnectionUtil.getReadConnection();
                 PreparedStatement getDriverStatement = connection.prepareStatement(query)) {
             getDriverStatement.setLong(1, id);
             ResultSet resultSet = getDriverStatement.executeQuery();
@@ -60,7 +83,7 @@ public class DriverDaoImpl implements DriverDao {
     public List<Driver> getAll() {
         String query = "SELECT * FROM drivers WHERE is_deleted = FALSE";
         List<Driver> drivers = new ArrayList<>();
-        try (Connection connection = ConnectionUtil.getConnection();
+        try (Connection connection = ConnectionUtil.getReadConnection();
                 PreparedStatement getAllDriversStatement = connection.prepareStatement(query)) {
             ResultSet resultSet = getAllDriversStatement.executeQuery();
             while (resultSet.next()) {
@@ -73,6 +96,43 @@ public class DriverDaoImpl implements DriverDao {
         }
     }
 
+    @Override
+    public Page<Driver> getPage(PageRequest pageRequest) {
+        KeysetQuery keyset = new KeysetQuery("drivers", "d", SORT_COLUMNS, pageRequest);
+        String query = "SELECT * FROM drivers d WHERE d.is_deleted = FALSE AND "
+                + keyset.condition() + keyset.orderBy() + keyset.limit();
+        List<Driver> drivers = new ArrayList<>();
+        try (Connection connection = ConnectionUtil.getReadConnection();
+                PreparedStatement getDriversPageStatement = connection.prepareStatement(query)) {
+            keyset.bind(getDriversPageStatement, 1);
+            ResultSet resultSet = getDriversPageStatement.executeQuery();
+            while (resultSet.next()) {
+                drivers.add(parseDriverFromResultSet(resultSet));
+            }
+            return keyset.toPage(drivers, Driver::getId);
+        } catch (SQLException e) {
+            throw new DataProcessingException("Couldn't get a page of drivers "
+                    + pageRequest, e);
+        }
+    }
+
+    @Override
+    public void streamAll(Consumer<Driver> consumer) {
+        String query = "SELECT * FROM drivers WHERE is_deleted = FALSE";
+        try (Connection connection = ConnectionUtil.getReadConnection();
+                PreparedStatement streamDriversStatement = connection.prepareStatement(query,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            streamDriversStatement.setFetchSize(ConnectionUtil.getStreamingFetchSize());
+            try (ResultSet resultSet = streamDriversStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    consumer.accept(parseDriverFromResultSet(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataProcessingException("Couldn't stream drivers from driversDB.", e);
+        }
+    }
+
     @Override
     public Driver update(Driver driver) {
         String query = "UPDATE drivers "
@@ -88,6 +148,7 @@ public class DriverDaoImpl implements DriverDao {
             updateDriverStatement.setString(4, driver.getPassword());
             updateDriverStatement.setLong(5, driver.getId());
             updateDriverStatement.executeUpdate();
+            TableVersions.bump(TableVersions.Table.DRIVERS);
             return driver;
         } catch (SQLException e) {
             throw new DataProcessingException("Couldn't update "
@@ -101,7 +162,11 @@ public class DriverDaoImpl implements DriverDao {
         try (Connection connection = ConnectionUtil.getConnection();
                 PreparedStatement deleteDriverStatement = connection.prepareStatement(query)) {
             deleteDriverStatement.setLong(1, id);
-            return deleteDriverStatement.executeUpdate() > 0;
+            if (deleteDriverStatement.executeUpdate() == 0) {
+                return false;
+            }
+            TableVersions.bump(TableVersions.Table.DRIVERS);
+            return true;
         } catch (SQLException e) {
             throw new DataProcessingException("Couldn't delete driver with id " + id, e);
         }
@@ -110,7 +175,7 @@ public class DriverDaoImpl implements DriverDao {
     @Override
     public Optional<Driver> findByLogin(String login) {
         String query = "SELECT * FROM drivers WHERE login = ? AND is_deleted = FALSE";
-        try (Connection connection = ConnectionUtil.getConnection();
+        try (Connection connection = ConnectionUtil.getReadConnection();
                 PreparedStatement getDriverStatement = connection.prepareStatement(query)) {
             getDriverStatement.setString(1, login);
             ResultSet resultSet = getDriverStatement.executeQuery();
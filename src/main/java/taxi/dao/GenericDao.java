@@ -2,14 +2,23 @@ package taxi.dao;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 
 public interface GenericDao<T> {
     T create(T element);
 
+    List<T> createAll(List<T> elements);
+
     Optional<T> get(Long id);
 
     List<T> getAll();
 
+    Page<T> getPage(PageRequest pageRequest);
+
+    void streamAll(Consumer<T> consumer);
+
     T update(T element);
 
     boolean delete(Long id);
@@ -0,0 +1,107 @@
+package taxi.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import taxi.exception.InvalidPageRequestException;
+import taxi.model.Page;
+import taxi.model.PageRequest;
+
+/**
+ * Builds the seek condition, ordering and limit for a keyset page.
+ * Sorting by a column other than id seeks on (column, id), the column value
+ * of the cursor row is looked up by its id so the cursor stays a plain id.
+ */
+class KeysetQuery {
+    private static final String ID_COLUMN = "id";
+    private final String table;
+    private final String alias;
+    private final String sortColumn;
+    private final PageRequest pageRequest;
+
+    KeysetQuery(String table, String alias, Set<String> sortColumns,
+                PageRequest pageRequest) {
+        String sort = pageRequest.getSort();
+        if (!ID_COLUMN.equals(sort) && !sortColumns.contains(sort)) {
+            throw new InvalidPageRequestException("Can't sort " + table + " by " + sort);
+        }
+        this.table = table;
+        this.alias = alias;
+        this.sortColumn = ID_COLUMN.equals(sort) ? null : sort;
+        this.pageRequest = pageRequest;
+    }
+
+    String condition() {
+        if (pageRequest.getCursor() == null) {
+            return "TRUE";
+        }
+        String operator = pageRequest.isBackward() ? " < " : " > ";
+        String id = alias + "." + ID_COLUMN;
+        if (sortColumn == null) {
+            return id + operator + "?";
+        }
+        String column = alias + "." + sortColumn;
+        String cursorValue = "(SELECT k." + sortColumn + " FROM " + table
+                + " k WHERE k." + ID_COLUMN + " = ?)";
+        return "(" + column + operator + cursorValue
+                + " OR (" + column + " = " + cursorValue + " AND " + id + operator + "?))";
+    }
+
+    String orderBy() {
+        String direction = pageRequest.isBackward() ? " DESC" : "";
+        String id = alias + "." + ID_COLUMN + direction;
+        if (sortColumn == null) {
+            return " ORDER BY " + id;
+        }
+        return " ORDER BY " + alias + "." + sortColumn + direction + ", " + id;
+    }
+
+    String limit() {
+        return " LIMIT ?";
+    }
+
+    /**
+     * Binds the cursor parameters of {@link #condition()} followed by the
+     * parameter of {@link #limit()}.
+     *
+     * @return index of the next parameter
+     */
+    int bind(PreparedStatement statement, int index) throws SQLException {
+        Long cursor = pageRequest.getCursor();
+        if (cursor != null) {
+            int cursorParameters = sortColumn == null ? 1 : 3;
+            for (int i = 0; i < cursorParameters; i++) {
+                statement.setLong(index++, cursor);
+            }
+        }
+        // one extra row tells whether there is a page beyond this one
+        statement.setInt(index++, pageRequest.getSize() + 1);
+        return index;
+    }
+
+    <T> Page<T> toPage(List<T> rows, Function<T, Long> idExtractor) {
+        int size = pageRequest.getSize();
+        boolean hasMore = rows.size() > size;
+        List<T> items = hasMore ? new ArrayList<>(rows.subList(0, size)) : rows;
+        boolean hasNext;
+        boolean hasPrevious;
+        if (pageRequest.isBackward()) {
+            Collections.reverse(items);
+            hasNext = true;
+            hasPrevious = hasMore;
+        } else {
+            hasNext = hasMore;
+            hasPrevious = pageRequest.getCursor() != null;
+        }
+        if (items.isEmpty()) {
+            return new Page<>(items, null, null);
+        }
+        Long previousCursor = hasPrevious ? idExtractor.apply(items.get(0)) : null;
+        Long nextCursor = hasNext ? idExtractor.apply(items.get(items.size() - 1)) : null;
+        return new Page<>(items, previousCursor, nextCursor);
+    }
+}
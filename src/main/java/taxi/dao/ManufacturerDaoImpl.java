@@ -8,13 +8,19 @@ import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import taxi.exception.DataProcessingException;
 import taxi.lib.Dao;
 import taxi.model.Manufacturer;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 import taxi.util.ConnectionUtil;
+import taxi.util.TableVersions;
 
 @Dao
 public class ManufacturerDaoImpl implements ManufacturerDao {
+    private static final Set<String> SORT_COLUMNS = Set.of("name", "country");
 
     @Override
     public Manufacturer create(Manufacturer manufacturer) {
@@ -23,6 +29,7 @@ public class ManufacturerDaoImpl implements ManufacturerDao {
                 PreparedStatement createManufacturerStatement
                         = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
             setUpdate(createManufacturerStatement, manufacturer).executeUpdate();
+            TableVersions.bump(TableVersions.Table.MANUFACTURERS);
             ResultSet resultSet = createManufacturerStatement.getGeneratedKeys();
             if (resultSet.next()) {
                 manufacturer.setId(resultSet.getObject(1, Long.class));
@@ -33,10 +40,20 @@ public class ManufacturerDaoImpl implements ManufacturerDao {
         }
     }
 
+    @Override
+    public List<Manufacturer> createAll(List<Manufacturer> manufacturers) {
+        String query = "INSERT INTO manufacturers (name, country) VALUES (?,?)";
+        BatchInsert.inChunks(manufacturers, chunk -> {
+            BatchInsert.insert(query, chunk, this::setUpdate, Manufacturer::setId);
+            TableVersions.bump(TableVersions.Table.MANUFACTURERS);
+        });
+        return manufacturers;
+    }
+
     @Override
     public Optional<Manufacturer> get(Long id) {
         String query = "SELECT * FROM manufacturers WHERE id = ? AND is_deleted = FALSE";
-        try (Connection connection = ConnectionUtil.getConnection();
+        try (Connection connection = ConnectionUtil.getReadConnection();
                 PreparedStatement getManufacturerStatement = connection.prepareStatement(query)) {
             getManufacturerStatement.setLong(1, id);
             ResultSet resultSet = getManufacturerStatement.executeQuery();
@@ -53,7 +70,7 @@ public class ManufacturerDaoImpl implements ManufacturerDao {
     @Override
     public List<Manufacturer> getAll() {
         String query = "SELECT * FROM manufacturers WHERE is_deleted = FALSE";
-        try (Connection connection = ConnectionUtil.getConnection();
+        try (Connection connection = ConnectionUtil.getReadConnection();
                 PreparedStatement getAllManufacturersStatement
                         = connection.prepareStatement(query)) {
             List<Manufacturer> manufacturers = new ArrayList<>();
@@ -68,6 +85,45 @@ public class ManufacturerDaoImpl implements ManufacturerDao {
         }
     }
 
+    @Override
+    public Page<Manufacturer> getPage(PageRequest pageRequest) {
+        KeysetQuery keyset = new KeysetQuery("manufacturers", "m", SORT_COLUMNS, pageRequest);
+        String query = "SELECT * FROM manufacturers m WHERE m.is_deleted = FALSE AND "
+                + keyset.condition() + keyset.orderBy() + keyset.limit();
+        try (Connection connection = ConnectionUtil.getReadConnection();
+                PreparedStatement getManufacturersPageStatement
+                        = connection.prepareStatement(query)) {
+            keyset.bind(getManufacturersPageStatement, 1);
+            List<Manufacturer> manufacturers = new ArrayList<>();
+            ResultSet resultSet = getManufacturersPageStatement.executeQuery();
+            while (resultSet.next()) {
+                manufacturers.add(parseManufacturerFromResultSet(resultSet));
+            }
+            return keyset.toPage(manufacturers, Manufacturer::getId);
+        } catch (SQLException e) {
+            throw new DataProcessingException("Couldn't get a page of manufacturers "
+                    + pageRequest, e);
+        }
+    }
+
+    @Override
+    public void streamAll(Consumer<Manufacturer> consumer) {
+        String query = "SELECT * FROM manufacturers WHERE is_deleted = FALSE";
+        try (Connection connection = ConnectionUtil.getReadConnection();
+                PreparedStatement streamManufacturersStatement = connection.prepareStatement(
+                        query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            streamManufacturersStatement.setFetchSize(ConnectionUtil.getStreamingFetchSize());
+            try (ResultSet resultSet = streamManufacturersStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    consumer.accept(parseManufacturerFromResultSet(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataProcessingException("Couldn't stream manufacturers "
+                    + "from manufacturers table. ", e);
+        }
+    }
+
     @Override
     public Manufacturer update(Manufacturer manufacturer) {
         String query = "UPDATE manufacturers SET name = ?, country = ?"
@@ -77,6 +133,7 @@ public class ManufacturerDaoImpl implements ManufacturerDao {
                         = setUpdate(connection.prepareStatement(query), manufacturer)) {
             updateManufacturerStatement.setLong(3, manufacturer.getId());
             updateManufacturerStatement.executeUpdate();
+            TableVersions.bump(TableVersions.Table.MANUFACTURERS);
             return manufacturer;
         } catch (SQLException e) {
             throw new DataProcessingException("Couldn't update a manufacturer "
@@ -91,7 +148,11 @@ public class ManufacturerDaoImpl implements ManufacturerDao {
                 PreparedStatement deleteManufacturerStatement
                         = connection.prepareStatement(query)) {
             deleteManufacturerStatement.setLong(1, id);
-            return deleteManufacturerStatement.executeUpdate() > 0;
+            if (deleteManufacturerStatement.executeUpdate() == 0) {
+                return false;
+            }
+            TableVersions.bump(TableVersions.Table.MANUFACTURERS);
+            return true;
         } catch (SQLException e) {
             throw new DataProcessingException("Couldn't delete a manufacturer by id " + id, e);
         }
@@ -0,0 +1,11 @@
+package taxi.exception;
+
+/**
+ * A malformed paging parameter. List controllers answer it with 400 instead
+ * of failing the request.
+ */
+public class InvalidPageRequestException extends IllegalArgumentException {
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,114 @@
+package taxi.lib;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compile-time list of the Dao, Service and Decorator classes, written by
+ * {@link ComponentIndexProcessor} to {@link #LOCATION}. One line per class:
+ * kind, class name, implemented interfaces and {@code name=type} pairs of its
+ * {@link Inject} fields, separated by tabs, lists separated by commas.
+ */
+public class ComponentIndex {
+    public static final String LOCATION = "META-INF/taxi/components.idx";
+    private static final String SEPARATOR = "\t";
+    private static final String LIST_SEPARATOR = ",";
+
+    /**
+     * Reads every index on the class path. Returns {@code null} when there is
+     * none, so the caller can fall back to scanning.
+     */
+    public static List<Entry> load(ClassLoader classLoader) throws IOException {
+        Enumeration<URL> resources = classLoader.getResources(LOCATION);
+        if (!resources.hasMoreElements()) {
+            return null;
+        }
+        List<Entry> entries = new ArrayList<>();
+        while (resources.hasMoreElements()) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    resources.nextElement().openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank()) {
+                        entries.add(Entry.parse(line));
+                    }
+                }
+            }
+        }
+        return entries;
+    }
+
+    public static void write(List<Entry> entries, Writer writer) throws IOException {
+        for (Entry entry : entries) {
+            writer.write(entry.format());
+            writer.write('\n');
+        }
+    }
+
+    public static class Entry {
+        private final String kind;
+        private final String className;
+        private final List<String> interfaces;
+        private final Map<String, String> injectFields;
+
+        public Entry(String kind, String className, List<String> interfaces,
+                     Map<String, String> injectFields) {
+            this.kind = kind;
+            this.className = className;
+            this.interfaces = List.copyOf(interfaces);
+            this.injectFields = Collections.unmodifiableMap(new LinkedHashMap<>(injectFields));
+        }
+
+        public String getKind() {
+            return kind;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public List<String> getInterfaces() {
+            return interfaces;
+        }
+
+        public Map<String, String> getInjectFields() {
+            return injectFields;
+        }
+
+        private String format() {
+            List<String> fields = new ArrayList<>();
+            injectFields.forEach((name, type) -> fields.add(name + "=" + type));
+            return kind + SEPARATOR + className
+                    + SEPARATOR + String.join(LIST_SEPARATOR, interfaces)
+                    + SEPARATOR + String.join(LIST_SEPARATOR, fields);
+        }
+
+        private static Entry parse(String line) {
+            String[] columns = line.split(SEPARATOR, -1);
+            if (columns.length != 4) {
+                throw new IllegalArgumentException("Malformed component index line: " + line);
+            }
+            Map<String, String> fields = new LinkedHashMap<>();
+            for (String field : split(columns[3])) {
+                String[] nameAndType = field.split("=", 2);
+                fields.put(nameAndType[0], nameAndType[1]);
+            }
+            return new Entry(columns[0], columns[1], split(columns[2]), fields);
+        }
+
+        private static List<String> split(String list) {
+            return list.isEmpty() ? List.of() : Arrays.asList(list.split(LIST_SEPARATOR));
+        }
+    }
+}
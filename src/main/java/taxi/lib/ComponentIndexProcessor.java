@@ -0,0 +1,104 @@
+package taxi.lib;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Writes the {@link ComponentIndex} while the project compiles, so the
+ * Injector doesn't have to scan and load every class at startup.
+ * Registered in the pom, it is not picked up from the class path.
+ */
+@SupportedAnnotationTypes({"taxi.lib.Dao", "taxi.lib.Service", "taxi.lib.Decorator"})
+public class ComponentIndexProcessor extends AbstractProcessor {
+    private static final String INJECT = "taxi.lib.Inject";
+    private final List<ComponentIndex.Entry> entries = new ArrayList<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            String kind = annotation.getSimpleName().toString();
+            for (TypeElement component
+                    : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(annotation))) {
+                entries.add(toEntry(kind, component));
+            }
+        }
+        if (roundEnv.processingOver() && !entries.isEmpty()) {
+            entries.sort(Comparator.comparing(ComponentIndex.Entry::getClassName));
+            writeIndex();
+        }
+        return false;
+    }
+
+    private ComponentIndex.Entry toEntry(String kind, TypeElement component) {
+        List<String> interfaces = new ArrayList<>();
+        for (TypeMirror singleInterface : component.getInterfaces()) {
+            interfaces.add(binaryName(singleInterface));
+        }
+        Map<String, String> injectFields = new LinkedHashMap<>();
+        for (VariableElement field : ElementFilter.fieldsIn(component.getEnclosedElements())) {
+            if (!field.getModifiers().contains(Modifier.STATIC) && isInjected(field)) {
+                injectFields.put(field.getSimpleName().toString(), binaryName(field.asType()));
+            }
+        }
+        return new ComponentIndex.Entry(kind,
+                processingEnv.getElementUtils().getBinaryName(component).toString(),
+                interfaces, injectFields);
+    }
+
+    private boolean isInjected(Element field) {
+        for (AnnotationMirror annotation : field.getAnnotationMirrors()) {
+            if (annotation.getAnnotationType().toString().equals(INJECT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String binaryName(TypeMirror type) {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        if (erased instanceof DeclaredType) {
+            TypeElement element = (TypeElement) ((DeclaredType) erased).asElement();
+            return processingEnv.getElementUtils().getBinaryName(element).toString();
+        }
+        return erased.toString();
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject index = processingEnv.getFiler().createResource(
+                    StandardLocation.CLASS_OUTPUT, "", ComponentIndex.LOCATION);
+            try (Writer writer = index.openWriter()) {
+                ComponentIndex.write(entries, writer);
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Can't write " + ComponentIndex.LOCATION + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package taxi.lib;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Marks a class that wraps the Dao or Service implementing the same
+ * interface. The Injector hands out the decorator instead of the
+ * implementation and passes the implementation to its single-argument
+ * constructor.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Decorator {
+}
@@ -0,0 +1,110 @@
+package taxi.lib;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The {@link Inject} dependencies between components, keyed by the interface
+ * they are requested by. The fields come as {@code name -> type name} per
+ * implementation, read from the {@link ComponentIndex} or, after a scan, from
+ * {@link #getInjectFields(Class)}. Building it fails with every missing
+ * implementation and the first dependency cycle found, so wiring errors show
+ * up at startup instead of on the first request that needs the broken
+ * component.
+ */
+class DependencyGraph {
+    private final Map<Class<?>, List<Class<?>>> dependencies = new HashMap<>();
+    private final Map<Class<?>, Integer> levels = new HashMap<>();
+    private final List<String> problems = new ArrayList<>();
+
+    DependencyGraph(Map<Class<?>, Class<?>> implementations,
+                    Map<Class<?>, Map<String, String>> injectFields) {
+        Map<String, Class<?>> interfacesByName = new HashMap<>();
+        for (Class<?> component : implementations.keySet()) {
+            interfacesByName.put(component.getName(), component);
+        }
+        for (Map.Entry<Class<?>, Class<?>> component : implementations.entrySet()) {
+            List<Class<?>> componentDependencies = new ArrayList<>();
+            injectFields.getOrDefault(component.getValue(), Map.of()).forEach((name, type) -> {
+                Class<?> dependency = interfacesByName.get(type);
+                if (dependency == null) {
+                    problems.add(component.getValue().getName() + "." + name
+                            + " needs " + type
+                            + ", which has no Dao or Service implementation");
+                } else {
+                    componentDependencies.add(dependency);
+                }
+            });
+            dependencies.put(component.getKey(), componentDependencies);
+        }
+        if (problems.isEmpty()) {
+            for (Class<?> component : implementations.keySet()) {
+                computeLevel(component, new ArrayDeque<>());
+            }
+        }
+        if (!problems.isEmpty()) {
+            throw new RuntimeException("Invalid dependency graph: "
+                    + String.join("; ", problems));
+        }
+    }
+
+    /**
+     * Groups the components so that everything a component depends on is in
+     * an earlier group. Components of one group can be created in parallel.
+     */
+    List<List<Class<?>>> getLevels() {
+        int depth = levels.values().stream().mapToInt(Integer::intValue).max().orElse(-1);
+        List<List<Class<?>>> grouped = new ArrayList<>();
+        for (int i = 0; i <= depth; i++) {
+            grouped.add(new ArrayList<>());
+        }
+        levels.forEach((component, level) -> grouped.get(level).add(component));
+        return grouped;
+    }
+
+    /**
+     * The {@link Inject} fields of a class found by scanning, in the form the
+     * index stores them.
+     */
+    static Map<String, String> getInjectFields(Class<?> clazz) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (Field field : clazz.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers())
+                    && field.isAnnotationPresent(Inject.class)) {
+                fields.put(field.getName(), field.getType().getName());
+            }
+        }
+        return fields;
+    }
+
+    private int computeLevel(Class<?> component, Deque<Class<?>> path) {
+        Integer known = levels.get(component);
+        if (known != null) {
+            return known;
+        }
+        if (path.contains(component)) {
+            List<Class<?>> cycle = new ArrayList<>(path);
+            cycle = cycle.subList(cycle.indexOf(component), cycle.size());
+            cycle.add(component);
+            throw new RuntimeException("Circular dependency: " + cycle.stream()
+                    .map(Class::getName)
+                    .collect(Collectors.joining(" -> ")));
+        }
+        path.addLast(component);
+        int level = 0;
+        for (Class<?> dependency : dependencies.get(component)) {
+            level = Math.max(level, computeLevel(dependency, path) + 1);
+        }
+        path.removeLast();
+        levels.put(component, level);
+        return level;
+    }
+}
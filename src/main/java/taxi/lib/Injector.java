@@ -2,114 +2,313 @@ package taxi.lib;
 
 import java.io.File;
 import java.io.IOException;
-import java.lang.reflect.Constructor;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Enumeration;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.metrics.TimingProxy;
 
+/**
+ * Hands out one wired instance per interface. Resolved instances are kept in
+ * a concurrent map, so after the first call {@link #getInstance(Class)} is a
+ * single lock-free lookup. Each implementation class is created under its own
+ * lock, so independent components can be created in parallel, see
+ * {@link #initializeAll()}. The dependency graph is validated up front, it
+ * has no cycles, so these locks are always taken in dependency order and
+ * can't deadlock. Fields are set through {@link VarHandle}s. Dao
+ * implementations are handed out behind a {@link TimingProxy}, inside any
+ * decorator, unless {@code taxi.metrics.daoTiming} is {@code false}.
+ * Components, their interfaces and their {@link Inject} fields are read from
+ * the {@link ComponentIndex}, the package is only scanned when the index is
+ * missing or stale.
+ */
 public class Injector {
-    private static final Map<String, Injector> injectors = new HashMap<>();
-    private final Map<Class<?>, Object> instanceOfClasses = new HashMap<>();
-    private final List<Class<?>> classes = new ArrayList<>();
+    private static final Logger logger = LogManager.getLogger(Injector.class);
+    private static final boolean DAO_TIMING = Boolean.parseBoolean(
+            System.getProperty("taxi.metrics.daoTiming", "true"));
+    private static final ConcurrentMap<String, Injector> injectors = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, Object> instancesByInterface =
+            new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, Object> instancesByClass = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, Object> creationLocks = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Class<?>> implementations = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Class<?>> decorators = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Map<String, String>> injectFields = new ConcurrentHashMap<>();
+    private final String mainPackageName;
+    private volatile DependencyGraph dependencyGraph;
+    private volatile boolean indexed;
 
     private Injector(String mainPackageName) {
+        this.mainPackageName = mainPackageName;
         try {
-            classes.addAll(getClasses(mainPackageName));
+            List<ComponentIndex.Entry> index = ComponentIndex.load(getClassLoader());
+            List<ComponentIndex.Entry> entries = index == null
+                    ? List.of() : getIndexedEntries(index, mainPackageName);
+            if (entries.isEmpty()) {
+                logger.warn("No {} entries found, scanning package {}",
+                        ComponentIndex.LOCATION, mainPackageName);
+                registerScannedComponents(getClasses(mainPackageName));
+            } else {
+                registerIndexedComponents(entries);
+                indexed = true;
+            }
         } catch (IOException | ClassNotFoundException e) {
             throw new RuntimeException("Can't get information about all classes", e);
         }
+        try {
+            dependencyGraph = new DependencyGraph(implementations, injectFields);
+        } catch (RuntimeException e) {
+            if (!indexed) {
+                throw e;
+            }
+            rescan(e.getMessage());
+        }
     }
 
     public static Injector getInstance(String mainPackageName) {
-        if (injectors.containsKey(mainPackageName)) {
-            return injectors.get(mainPackageName);
-        }
-        Injector injector = new Injector(mainPackageName);
-        injectors.put(mainPackageName, injector);
-        return injector;
+        return injectors.computeIfAbsent(mainPackageName, Injector::new);
     }
 
     public Object getInstance(Class<?> certainInterface) {
-        Object newInstanceOfClass = null;
-        Class<?> clazz = findClassExtendingInterface(certainInterface);
-        Object instanceOfCurrentClass = createInstance(clazz);
-        Field[] declaredFields = clazz.getDeclaredFields();
-        for (Field field : declaredFields) {
-            if (isFieldInitialized(field, instanceOfCurrentClass)) {
-                continue;
-            }
-            if (field.getDeclaredAnnotation(Inject.class) != null) {
-                Object classToInject = getInstance(field.getType());
-                newInstanceOfClass = getNewInstance(clazz);
-                setValueToField(field, newInstanceOfClass, classToInject);
-            } else {
-                throw new RuntimeException("Class " + field.getName() + " in class "
-                        + clazz.getName() + " hasn't annotation Inject");
+        Object instance = instancesByInterface.get(certainInterface);
+        if (instance != null) {
+            return instance;
+        }
+        instance = createComponent(certainInterface);
+        Object existing = instancesByInterface.putIfAbsent(certainInterface, instance);
+        return existing == null ? instance : existing;
+    }
+
+    /**
+     * Creates every component now instead of on first use, level by level of
+     * the dependency graph, the components of one level in parallel. Logs and
+     * returns how long each component took, in nanoseconds.
+     */
+    public Map<Class<?>, Long> initializeAll() {
+        long start = System.nanoTime();
+        List<List<Class<?>>> levels = dependencyGraph.getLevels();
+        int parallelism = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(),
+                levels.stream().mapToInt(List::size).max().orElse(1)));
+        Map<Class<?>, Long> timings = new ConcurrentHashMap<>();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            for (List<Class<?>> level : levels) {
+                List<Callable<Object>> tasks = new ArrayList<>();
+                for (Class<?> component : level) {
+                    tasks.add(() -> {
+                        long componentStart = System.nanoTime();
+                        Object instance = getInstance(component);
+                        timings.put(component, System.nanoTime() - componentStart);
+                        return instance;
+                    });
+                }
+                for (Future<Object> created : pool.invokeAll(tasks)) {
+                    created.get();
+                }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while initializing components", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Can't initialize components", e.getCause());
+        } finally {
+            pool.shutdown();
         }
-        if (newInstanceOfClass == null) {
-            return getNewInstance(clazz);
+        Map<Class<?>, Long> report = new LinkedHashMap<>();
+        for (int i = 0; i < levels.size(); i++) {
+            for (Class<?> component : levels.get(i)) {
+                report.put(component, timings.get(component));
+                logger.info("Initialized {} ({}, level {}) in {} us", component.getName(),
+                        getInstance(component).getClass().getSimpleName(), i,
+                        TimeUnit.NANOSECONDS.toMicros(timings.get(component)));
+            }
         }
-        return newInstanceOfClass;
+        logger.info("Initialized {} components in {} levels with {} threads in {} ms",
+                report.size(), levels.size(), parallelism,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return report;
     }
 
-    private Class<?> findClassExtendingInterface(Class<?> certainInterface) {
-        for (Class<?> clazz : classes) {
-            Class<?>[] interfaces = clazz.getInterfaces();
-            for (Class<?> singleInterface : interfaces) {
-                if (singleInterface.equals(certainInterface)
-                        && (clazz.isAnnotationPresent(Service.class)
-                        || clazz.isAnnotationPresent(Dao.class))) {
-                    return clazz;
+    private Object createComponent(Class<?> certainInterface) {
+        Class<?> clazz = findClassExtendingInterface(certainInterface);
+        Object instance = getSingleton(clazz);
+        if (DAO_TIMING && clazz.isAnnotationPresent(Dao.class)) {
+            instance = TimingProxy.wrap(certainInterface, instance);
+        }
+        Class<?> decoratorClass = decorators.get(certainInterface);
+        if (decoratorClass == null) {
+            return instance;
+        }
+        synchronized (creationLocks.computeIfAbsent(decoratorClass, key -> new Object())) {
+            Object decorator = instancesByClass.get(decoratorClass);
+            if (decorator == null) {
+                try {
+                    decorator = MethodHandles.publicLookup()
+                            .findConstructor(decoratorClass,
+                                    MethodType.methodType(void.class, certainInterface))
+                            .invoke(instance);
+                } catch (Throwable e) {
+                    throw new RuntimeException("Can't create decorator "
+                            + decoratorClass.getName(), e);
                 }
+                instancesByClass.put(decoratorClass, decorator);
             }
+            return decorator;
         }
-        throw new RuntimeException("Can't find class which implements "
-                + certainInterface.getName()
-                + " interface and has valid annotation (Dao or Service)");
     }
 
-    private Object getNewInstance(Class<?> certainClass) {
-        if (instanceOfClasses.containsKey(certainClass)) {
-            return instanceOfClasses.get(certainClass);
+    private Object getSingleton(Class<?> clazz) {
+        Object instance = instancesByClass.get(clazz);
+        if (instance != null) {
+            return instance;
+        }
+        synchronized (creationLocks.computeIfAbsent(clazz, key -> new Object())) {
+            instance = instancesByClass.get(clazz);
+            if (instance == null) {
+                instance = createSingleton(clazz);
+                instancesByClass.put(clazz, instance);
+            }
+            return instance;
         }
-        Object newInstance = createInstance(certainClass);
-        instanceOfClasses.put(certainClass, newInstance);
-        return newInstance;
     }
 
-    private boolean isFieldInitialized(Field field, Object instance) {
-        field.setAccessible(true);
+    private Object createSingleton(Class<?> clazz) {
         try {
-            return field.get(instance) != null;
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException("Can't get access to field");
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(clazz,
+                    MethodHandles.lookup());
+            Object instance = lookup.findConstructor(clazz, MethodType.methodType(void.class))
+                    .invoke();
+            for (Field field : clazz.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                VarHandle handle = lookup.unreflectVarHandle(field);
+                if (field.getDeclaredAnnotation(Inject.class) != null) {
+                    handle.set(instance, getInstance(field.getType()));
+                } else if (handle.get(instance) == null) {
+                    throw new RuntimeException("Class " + field.getName() + " in class "
+                            + clazz.getName() + " hasn't annotation Inject");
+                }
+            }
+            return instance;
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException("Can't create object of the class " + clazz.getName(), e);
         }
     }
 
-    private Object createInstance(Class<?> clazz) {
-        Object newInstance;
-        try {
-            Constructor<?> classConstructor = clazz.getConstructor();
-            newInstance = classConstructor.newInstance();
-        } catch (Exception e) {
-            throw new RuntimeException("Can't create object of the class", e);
+    private Class<?> findClassExtendingInterface(Class<?> certainInterface) {
+        Class<?> clazz = implementations.get(certainInterface);
+        if (clazz == null && indexed) {
+            rescan(certainInterface.getName() + " is missing");
+            clazz = implementations.get(certainInterface);
+        }
+        if (clazz == null) {
+            throw new RuntimeException("Can't find class which implements "
+                    + certainInterface.getName()
+                    + " interface and has valid annotation (Dao or Service)");
         }
-        return newInstance;
+        return clazz;
     }
 
-    private void setValueToField(Field field, Object instanceOfClass, Object classToInject) {
+    /**
+     * Falls back to scanning, the index can be stale after a partial rebuild
+     * in an IDE.
+     */
+    private synchronized void rescan(String reason) {
+        if (!indexed) {
+            return;
+        }
+        logger.warn("{} in {}, scanning package {}",
+                reason, ComponentIndex.LOCATION, mainPackageName);
         try {
-            field.setAccessible(true);
-            field.set(instanceOfClass, classToInject);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException("Can't set value to field ", e);
+            registerScannedComponents(getClasses(mainPackageName));
+        } catch (IOException | ClassNotFoundException e) {
+            throw new RuntimeException("Can't get information about all classes", e);
         }
+        dependencyGraph = new DependencyGraph(implementations, injectFields);
+        indexed = false;
     }
+
+    /**
+     * Registers the components as the index describes them, without
+     * reflecting over their interfaces and fields.
+     */
+    private void registerIndexedComponents(List<ComponentIndex.Entry> entries)
+            throws ClassNotFoundException {
+        for (ComponentIndex.Entry entry : entries) {
+            Class<?> clazz = loadClass(entry.getClassName());
+            boolean decorator = entry.getKind().equals(Decorator.class.getSimpleName());
+            for (String singleInterface : entry.getInterfaces()) {
+                register(loadClass(singleInterface), clazz, decorator);
+            }
+            injectFields.put(clazz, entry.getInjectFields());
+        }
+    }
+
+    private void registerScannedComponents(List<Class<?>> classes) {
+        for (Class<?> clazz : classes) {
+            boolean component = clazz.isAnnotationPresent(Service.class)
+                    || clazz.isAnnotationPresent(Dao.class);
+            boolean decorator = clazz.isAnnotationPresent(Decorator.class);
+            if (!component && !decorator) {
+                continue;
+            }
+            for (Class<?> singleInterface : clazz.getInterfaces()) {
+                register(singleInterface, clazz, decorator);
+            }
+            injectFields.put(clazz, DependencyGraph.getInjectFields(clazz));
+        }
+    }
+
+    private void register(Class<?> singleInterface, Class<?> clazz, boolean decorator) {
+        if (decorator) {
+            decorators.putIfAbsent(singleInterface, clazz);
+        } else {
+            implementations.putIfAbsent(singleInterface, clazz);
+        }
+    }
+
+    private static List<ComponentIndex.Entry> getIndexedEntries(
+            List<ComponentIndex.Entry> index, String packageName) {
+        List<ComponentIndex.Entry> entries = new ArrayList<>();
+        for (ComponentIndex.Entry entry : index) {
+            if (entry.getClassName().startsWith(packageName + '.')) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    private static Class<?> loadClass(String name) throws ClassNotFoundException {
+        return Class.forName(name, false, getClassLoader());
+    }
+
+    private static ClassLoader getClassLoader() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            throw new RuntimeException("Class loader is null");
+        }
+        return classLoader;
+    }
+
     /**
      * Scans all classes accessible from the context class loader which
      * belong to the given package and subpackages.
@@ -122,10 +321,7 @@ public class Injector {
 
     private static List<Class<?>> getClasses(String packageName)
             throws IOException, ClassNotFoundException {
-        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-        if (classLoader == null) {
-            throw new RuntimeException("Class loader is null");
-        }
+        ClassLoader classLoader = getClassLoader();
         String path = packageName.replace('.', '/');
         Enumeration<URL> resources = classLoader.getResources(path);
         List<File> dirs = new ArrayList<>();
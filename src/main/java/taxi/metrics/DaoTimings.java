@@ -0,0 +1,64 @@
+package taxi.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call latencies and failures of every DAO method, keyed by the DAO
+ * interface and method name. Filled by {@link TimingProxy}.
+ */
+public class DaoTimings {
+    private static final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public static Timer get(String dao, String method) {
+        return timers.computeIfAbsent(dao + '.' + method, key -> new Timer(dao, method));
+    }
+
+    /**
+     * Returns the timers sorted by DAO and method, for a stable output order.
+     */
+    public static Map<String, Timer> getAll() {
+        return new TreeMap<>(timers);
+    }
+
+    static void reset() {
+        timers.clear();
+    }
+
+    public static class Timer {
+        private final String dao;
+        private final String method;
+        private final Histogram nanos = new Histogram();
+        private final LongAdder errors = new LongAdder();
+
+        private Timer(String dao, String method) {
+            this.dao = dao;
+            this.method = method;
+        }
+
+        public void record(long elapsedNanos, boolean failed) {
+            nanos.record(elapsedNanos);
+            if (failed) {
+                errors.increment();
+            }
+        }
+
+        public String getDao() {
+            return dao;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public Histogram getNanos() {
+            return nanos;
+        }
+
+        public long getErrorCount() {
+            return errors.sum();
+        }
+    }
+}
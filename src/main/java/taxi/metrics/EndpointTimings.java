@@ -0,0 +1,49 @@
+package taxi.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Time spent in each phase of a request, keyed by the servlet mapping that
+ * served it and the phase name. Filled by the request timing filter.
+ */
+public class EndpointTimings {
+    private static final Map<String, Phase> phases = new ConcurrentHashMap<>();
+
+    public static Histogram get(String endpoint, String phase) {
+        return phases.computeIfAbsent(endpoint + ' ' + phase,
+                key -> new Phase(endpoint, phase)).getNanos();
+    }
+
+    /**
+     * Returns the phases sorted by endpoint and phase name, for a stable
+     * output order.
+     */
+    public static Map<String, Phase> getAll() {
+        return new TreeMap<>(phases);
+    }
+
+    public static class Phase {
+        private final String endpoint;
+        private final String name;
+        private final Histogram nanos = new Histogram();
+
+        private Phase(String endpoint, String name) {
+            this.endpoint = endpoint;
+            this.name = name;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Histogram getNanos() {
+            return nanos;
+        }
+    }
+}
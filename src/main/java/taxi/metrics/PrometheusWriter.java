@@ -0,0 +1,87 @@
+package taxi.metrics;
+
+import java.io.PrintWriter;
+
+/**
+ * Writes metrics in the Prometheus text exposition format, version 0.0.4.
+ * Labels are passed as alternating names and values.
+ */
+public class PrometheusWriter {
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+    private final PrintWriter out;
+
+    public PrometheusWriter(PrintWriter out) {
+        this.out = out;
+    }
+
+    public void header(String name, String type, String help) {
+        out.print("# HELP " + name + ' ' + help + '\n');
+        out.print("# TYPE " + name + ' ' + type + '\n');
+    }
+
+    public void sample(String name, double value, String... labels) {
+        out.print(name);
+        writeLabels(labels);
+        out.print(' ');
+        out.print(formatValue(value));
+        out.print('\n');
+    }
+
+    public void summary(String name, Histogram histogram, String... labels) {
+        writeSummary(name, histogram, 1, labels);
+    }
+
+    /**
+     * Writes a histogram of nanoseconds as the quantile, sum and count
+     * samples of a summary in seconds.
+     */
+    public void summaryInSeconds(String name, Histogram nanos, String... labels) {
+        writeSummary(name, nanos, NANOS_PER_SECOND, labels);
+    }
+
+    private void writeSummary(String name, Histogram histogram, double divisor,
+                              String... labels) {
+        String[] quantileLabels = new String[labels.length + 2];
+        System.arraycopy(labels, 0, quantileLabels, 0, labels.length);
+        quantileLabels[labels.length] = "quantile";
+        for (double quantile : QUANTILES) {
+            quantileLabels[labels.length + 1] = formatValue(quantile);
+            sample(name, histogram.getPercentile(quantile) / divisor, quantileLabels);
+        }
+        sample(name + "_sum", histogram.getSum() / divisor, labels);
+        sample(name + "_count", histogram.getCount(), labels);
+    }
+
+    private void writeLabels(String... labels) {
+        if (labels.length == 0) {
+            return;
+        }
+        out.print('{');
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                out.print(',');
+            }
+            out.print(labels[i]);
+            out.print("=\"");
+            out.print(escape(labels[i + 1]));
+            out.print('"');
+        }
+        out.print('}');
+    }
+
+    static String formatValue(double value) {
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
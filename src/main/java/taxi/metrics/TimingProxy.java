@@ -0,0 +1,55 @@
+package taxi.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every call made through an interface and records it in
+ * {@link DaoTimings} under the interface's simple name. Methods declared by
+ * {@link Object} go straight to the target.
+ */
+public class TimingProxy implements InvocationHandler {
+    private final String name;
+    private final Object target;
+    private final Map<Method, DaoTimings.Timer> timers = new ConcurrentHashMap<>();
+
+    private TimingProxy(String name, Object target) {
+        this.name = name;
+        this.target = target;
+    }
+
+    public static <T> T wrap(Class<T> type, Object target) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                new TimingProxy(type.getSimpleName(), target)));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return invokeTarget(method, args);
+        }
+        DaoTimings.Timer timer = timers.computeIfAbsent(method,
+                key -> DaoTimings.get(name, key.getName()));
+        boolean failed = true;
+        long start = System.nanoTime();
+        try {
+            Object result = invokeTarget(method, args);
+            failed = false;
+            return result;
+        } finally {
+            timer.record(System.nanoTime() - start, failed);
+        }
+    }
+
+    private Object invokeTarget(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
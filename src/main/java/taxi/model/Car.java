@@ -1,14 +1,19 @@
 package taxi.model;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public class Car {
     private Long id;
     private String model;
     private Manufacturer manufacturer;
     private List<Driver> drivers;
+    private Set<Long> persistedDriverIds;
 
     public Car() {
     }
@@ -51,6 +56,38 @@ public class Car {
         this.drivers = drivers;
     }
 
+    /**
+     * Ids of the drivers linked to this car in the database when it was last
+     * loaded or saved, {@code null} if unknown. Lets an update write only the
+     * links that changed since then. Not part of equals and hashCode.
+     */
+    public Set<Long> getPersistedDriverIds() {
+        return persistedDriverIds;
+    }
+
+    public void markDriversPersisted() {
+        persistedDriverIds = drivers == null ? Set.of() : drivers.stream()
+                .map(Driver::getId)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Records a single link written or deleted on its own, so a later update
+     * doesn't write it again. Does nothing while the persisted ids are unknown.
+     */
+    public void markDriverPersisted(Long driverId, boolean linked) {
+        if (persistedDriverIds == null) {
+            return;
+        }
+        Set<Long> driverIds = new HashSet<>(persistedDriverIds);
+        if (linked) {
+            driverIds.add(driverId);
+        } else {
+            driverIds.remove(driverId);
+        }
+        persistedDriverIds = Collections.unmodifiableSet(driverIds);
+    }
+
     @Override
     public String toString() {
         return "Car{"
@@ -0,0 +1,64 @@
+package taxi.model;
+
+import java.util.List;
+import java.util.Objects;
+
+public class Page<T> {
+    private final List<T> items;
+    private final Long previousCursor;
+    private final Long nextCursor;
+
+    public Page(List<T> items, Long previousCursor, Long nextCursor) {
+        this.items = items;
+        this.previousCursor = previousCursor;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public Long getPreviousCursor() {
+        return previousCursor;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasPrevious() {
+        return previousCursor != null;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Page<?> page = (Page<?>) o;
+        return Objects.equals(items, page.items)
+                && Objects.equals(previousCursor, page.previousCursor)
+                && Objects.equals(nextCursor, page.nextCursor);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(items, previousCursor, nextCursor);
+    }
+
+    @Override
+    public String toString() {
+        return "Page{"
+                + "items=" + items
+                + ", previousCursor=" + previousCursor
+                + ", nextCursor=" + nextCursor
+                + '}';
+    }
+}
@@ -0,0 +1,91 @@
+package taxi.model;
+
+import java.util.Objects;
+
+/**
+ * Keyset page request. A page is addressed by the id of the row it starts
+ * after (next page) or ends before (previous page) instead of an offset,
+ * so every page costs the same no matter how deep it is.
+ */
+public class PageRequest {
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 500;
+    public static final String DEFAULT_SORT = "id";
+    private final Long afterId;
+    private final Long beforeId;
+    private final int size;
+    private final String sort;
+
+    public PageRequest(Long afterId, Long beforeId, int size, String sort) {
+        if (afterId != null && beforeId != null) {
+            throw new IllegalArgumentException("Page can't be requested both after "
+                    + afterId + " and before " + beforeId);
+        }
+        this.afterId = afterId;
+        this.beforeId = beforeId;
+        this.size = Math.min(Math.max(size, 1), MAX_SIZE);
+        this.sort = sort == null || sort.isBlank() ? DEFAULT_SORT : sort;
+    }
+
+    public static PageRequest first(int size) {
+        return new PageRequest(null, null, size, DEFAULT_SORT);
+    }
+
+    public static PageRequest after(Long afterId, int size) {
+        return new PageRequest(afterId, null, size, DEFAULT_SORT);
+    }
+
+    public Long getAfterId() {
+        return afterId;
+    }
+
+    public Long getBeforeId() {
+        return beforeId;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public boolean isBackward() {
+        return beforeId != null;
+    }
+
+    public Long getCursor() {
+        return isBackward() ? beforeId : afterId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PageRequest that = (PageRequest) o;
+        return size == that.size
+                && Objects.equals(afterId, that.afterId)
+                && Objects.equals(beforeId, that.beforeId)
+                && Objects.equals(sort, that.sort);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(afterId, beforeId, size, sort);
+    }
+
+    @Override
+    public String toString() {
+        return "PageRequest{"
+                + "afterId=" + afterId
+                + ", beforeId=" + beforeId
+                + ", size=" + size
+                + ", sort='" + sort + '\''
+                + '}';
+    }
+}
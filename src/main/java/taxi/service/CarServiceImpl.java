@@ -1,6 +1,7 @@
 package taxi.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import taxi.dao.CarDao;
@@ -8,6 +9,8 @@ import taxi.lib.Inject;
 import taxi.lib.Service;
 import taxi.model.Car;
 import taxi.model.Driver;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 
 @Service
 public class CarServiceImpl implements CarService {
@@ -18,16 +21,22 @@ public class CarServiceImpl implements CarService {
     @Override
     public void addDriverToCar(Driver driver, Car car) {
         logger.info("addDriverToCar method was called. Params: driver {}; car {}", driver, car);
-        car.getDrivers().add(driver);
-        carDao.update(car);
+        if (!carDao.addDriver(car.getId(), driver.getId())) {
+            logger.info("Driver {} already drives car {}", driver.getId(), car.getId());
+        }
+        if (car.getDrivers().stream().noneMatch(linked -> isSameDriver(linked, driver))) {
+            car.getDrivers().add(driver);
+        }
+        car.markDriverPersisted(driver.getId(), true);
     }
 
     @Override
     public void removeDriverFromCar(Driver driver, Car car) {
         logger.info("removeDriverFromCar method was called. Params: driver {}; car {}",
                 driver, car);
-        car.getDrivers().remove(driver);
-        carDao.update(car);
+        carDao.removeDriver(car.getId(), driver.getId());
+        car.getDrivers().removeIf(linked -> isSameDriver(linked, driver));
+        car.markDriverPersisted(driver.getId(), false);
     }
 
     @Override
@@ -41,6 +50,12 @@ public class CarServiceImpl implements CarService {
         return carDao.create(car);
     }
 
+    @Override
+    public List<Car> createAll(List<Car> cars) {
+        logger.info("createAll method was called. Params: size {}", cars.size());
+        return carDao.createAll(cars);
+    }
+
     @Override
     public Car get(Long id) {
         return carDao.get(id).get();
@@ -51,6 +66,16 @@ public class CarServiceImpl implements CarService {
         return carDao.getAll();
     }
 
+    @Override
+    public Page<Car> getPage(PageRequest pageRequest) {
+        return carDao.getPage(pageRequest);
+    }
+
+    @Override
+    public void streamAll(Consumer<Car> consumer) {
+        carDao.streamAll(consumer);
+    }
+
     @Override
     public Car update(Car car) {
         logger.info("update method was called. Params: car {}", car);
@@ -62,4 +87,9 @@ public class CarServiceImpl implements CarService {
         logger.info("delete method was called. Params: id {}", id);
         return carDao.delete(id);
     }
+
+    private static boolean isSameDriver(Driver linked, Driver driver) {
+        return driver.getId() == null
+                ? driver.equals(linked) : driver.getId().equals(linked.getId());
+    }
 }
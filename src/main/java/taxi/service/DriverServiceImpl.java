@@ -2,12 +2,15 @@ package taxi.service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import taxi.dao.DriverDao;
 import taxi.lib.Inject;
 import taxi.lib.Service;
 import taxi.model.Driver;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 
 @Service
 public class DriverServiceImpl implements DriverService {
@@ -21,6 +24,12 @@ public class DriverServiceImpl implements DriverService {
         return driverDao.create(driver);
     }
 
+    @Override
+    public List<Driver> createAll(List<Driver> drivers) {
+        logger.info("createAll method was called. Params: size={}", drivers.size());
+        return driverDao.createAll(drivers);
+    }
+
     @Override
     public Driver get(Long id) {
         return driverDao.get(id).get();
@@ -31,6 +40,16 @@ public class DriverServiceImpl implements DriverService {
         return driverDao.getAll();
     }
 
+    @Override
+    public Page<Driver> getPage(PageRequest pageRequest) {
+        return driverDao.getPage(pageRequest);
+    }
+
+    @Override
+    public void streamAll(Consumer<Driver> consumer) {
+        driverDao.streamAll(consumer);
+    }
+
     @Override
     public Driver update(Driver driver) {
         logger.info("update method was called. Params: driver={}", driver);
@@ -1,14 +1,23 @@
 package taxi.service;
 
 import java.util.List;
+import java.util.function.Consumer;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 
 public interface GenericService<T> {
     T create(T element);
 
+    List<T> createAll(List<T> elements);
+
     T get(Long id);
 
     List<T> getAll();
 
+    Page<T> getPage(PageRequest pageRequest);
+
+    void streamAll(Consumer<T> consumer);
+
     T update(T element);
 
     boolean delete(Long id);
@@ -0,0 +1,12 @@
+package taxi.service;
+
+import java.io.Reader;
+import taxi.bulk.ImportFormat;
+import taxi.bulk.ImportProgressListener;
+import taxi.bulk.ImportReport;
+import taxi.bulk.ImportType;
+
+public interface ImportService {
+    ImportReport importData(ImportType type, ImportFormat format, Reader input,
+                            ImportProgressListener listener);
+}
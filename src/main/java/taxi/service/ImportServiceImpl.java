@@ -0,0 +1,107 @@
+package taxi.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.bulk.ImportFormat;
+import taxi.bulk.ImportPipeline;
+import taxi.bulk.ImportProgressListener;
+import taxi.bulk.ImportReport;
+import taxi.bulk.ImportType;
+import taxi.bulk.RecordMapper;
+import taxi.bulk.RecordReader;
+import taxi.exception.DataProcessingException;
+import taxi.lib.Inject;
+import taxi.lib.Service;
+import taxi.model.Car;
+import taxi.model.Driver;
+import taxi.model.Manufacturer;
+
+@Service
+public class ImportServiceImpl implements ImportService {
+    private static final Logger logger = LogManager.getLogger(ImportServiceImpl.class);
+    private static final int DEFAULT_CHUNK_SIZE = 1_000;
+    private static final int CHUNK_SIZE = Math.max(1,
+            Integer.getInteger("taxi.import.chunkSize", DEFAULT_CHUNK_SIZE));
+    @Inject
+    private DriverService driverService;
+    @Inject
+    private ManufacturerService manufacturerService;
+    @Inject
+    private CarService carService;
+
+    @Override
+    public ImportReport importData(ImportType type, ImportFormat format, Reader input,
+                                   ImportProgressListener listener) {
+        logger.info("importData method was called. Params: type={}, format={}", type, format);
+        try (RecordReader reader = RecordReader.of(format, input)) {
+            switch (type) {
+                case DRIVERS:
+                    return new ImportPipeline<>(CHUNK_SIZE, this::mapDriver,
+                            driverService::createAll).run(type, reader, listener);
+                case MANUFACTURERS:
+                    return new ImportPipeline<>(CHUNK_SIZE, this::mapManufacturer,
+                            manufacturerService::createAll).run(type, reader, listener);
+                case CARS:
+                default:
+                    return new ImportPipeline<>(CHUNK_SIZE, carMapper(),
+                            carService::createAll).run(type, reader, listener);
+            }
+        } catch (IOException e) {
+            throw new DataProcessingException("Can't read " + type + " import", e);
+        }
+    }
+
+    private Driver mapDriver(Map<String, String> record) {
+        return new Driver(RecordMapper.required(record, "name"),
+                RecordMapper.required(record, "license_number"),
+                RecordMapper.required(record, "login"),
+                RecordMapper.required(record, "password"));
+    }
+
+    private Manufacturer mapManufacturer(Map<String, String> record) {
+        return new Manufacturer(RecordMapper.required(record, "name"),
+                RecordMapper.required(record, "country"));
+    }
+
+    /**
+     * Manufacturers are resolved from one streaming pass over the table made
+     * before the import starts, cars may reference them by manufacturer name
+     * or by manufacturer_id.
+     */
+    private RecordMapper<Car> carMapper() {
+        Map<String, Manufacturer> manufacturersByName = new HashMap<>();
+        Map<Long, Manufacturer> manufacturersById = new HashMap<>();
+        manufacturerService.streamAll(manufacturer -> {
+            manufacturersByName.putIfAbsent(manufacturer.getName(), manufacturer);
+            manufacturersById.put(manufacturer.getId(), manufacturer);
+        });
+        return record -> {
+            String model = RecordMapper.required(record, "model");
+            String manufacturerId = record.get("manufacturer_id");
+            Manufacturer manufacturer;
+            if (manufacturerId != null && !manufacturerId.isBlank()) {
+                manufacturer = manufacturersById.get(parseId(manufacturerId));
+            } else {
+                manufacturer = manufacturersByName.get(
+                        RecordMapper.required(record, "manufacturer"));
+            }
+            if (manufacturer == null) {
+                throw new IllegalArgumentException("Unknown manufacturer "
+                        + (manufacturerId != null ? manufacturerId : record.get("manufacturer")));
+            }
+            return new Car(model, manufacturer);
+        };
+    }
+
+    private Long parseId(String id) {
+        try {
+            return Long.parseLong(id.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid id " + id);
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package taxi.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import taxi.dao.ManufacturerDao;
 import taxi.lib.Inject;
 import taxi.lib.Service;
 import taxi.model.Manufacturer;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 
 @Service
 public class ManufacturerServiceImpl implements ManufacturerService {
@@ -20,6 +23,12 @@ public class ManufacturerServiceImpl implements ManufacturerService {
         return manufacturerDao.create(manufacturer);
     }
 
+    @Override
+    public List<Manufacturer> createAll(List<Manufacturer> manufacturers) {
+        logger.info("createAll method was called. Params: size={}", manufacturers.size());
+        return manufacturerDao.createAll(manufacturers);
+    }
+
     @Override
     public Manufacturer get(Long id) {
         return manufacturerDao.get(id).get();
@@ -30,6 +39,16 @@ public class ManufacturerServiceImpl implements ManufacturerService {
         return manufacturerDao.getAll();
     }
 
+    @Override
+    public Page<Manufacturer> getPage(PageRequest pageRequest) {
+        return manufacturerDao.getPage(pageRequest);
+    }
+
+    @Override
+    public void streamAll(Consumer<Manufacturer> consumer) {
+        manufacturerDao.streamAll(consumer);
+    }
+
     @Override
     public Manufacturer update(Manufacturer manufacturer) {
         logger.info("update method was called. Params: manufacturer={}", manufacturer);
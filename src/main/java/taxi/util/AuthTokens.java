@@ -0,0 +1,115 @@
+package taxi.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Issues and verifies signed, expiring tokens of the form
+ * {@code userId.expiresAt.signature}, where the signature is an HMAC-SHA256
+ * over {@code userId.expiresAt}. Verification needs only the shared secret
+ * from {@code taxi.auth.secret}, so any node can check a token issued by
+ * another one. Without the property a random secret is generated, which is
+ * fine for a single node but logs out everybody on restart.
+ */
+public class AuthTokens {
+    private static final Logger logger = LogManager.getLogger(AuthTokens.class);
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final long DEFAULT_TTL_SECONDS = 8 * 60 * 60;
+    private static final long TTL_SECONDS = Long.getLong("taxi.auth.ttlSeconds",
+            DEFAULT_TTL_SECONDS);
+    private static final SecretKeySpec key = new SecretKeySpec(loadSecret(), ALGORITHM);
+    private static final ThreadLocal<Mac> macs = ThreadLocal.withInitial(AuthTokens::createMac);
+
+    public static long getTtlSeconds() {
+        return TTL_SECONDS;
+    }
+
+    public static String issue(Long userId) {
+        return issue(userId, nowSeconds());
+    }
+
+    static String issue(Long userId, long nowSeconds) {
+        String payload = userId + "." + (nowSeconds + TTL_SECONDS);
+        return payload + "." + sign(payload);
+    }
+
+    /**
+     * Returns the user id carried by the token, or {@code null} if the token
+     * is malformed, tampered with or expired.
+     */
+    public static Long verify(String token) {
+        return verify(token, nowSeconds());
+    }
+
+    static Long verify(String token, long nowSeconds) {
+        if (token == null) {
+            return null;
+        }
+        int signatureStart = token.lastIndexOf('.');
+        int expiresStart = token.indexOf('.');
+        if (expiresStart <= 0 || signatureStart == expiresStart) {
+            return null;
+        }
+        String payload = token.substring(0, signatureStart);
+        byte[] expected = sign(payload).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = token.substring(signatureStart + 1).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, actual)) {
+            return null;
+        }
+        try {
+            long expiresAt = Long.parseLong(token.substring(expiresStart + 1, signatureStart));
+            return expiresAt > nowSeconds
+                    ? Long.valueOf(token.substring(0, expiresStart)) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Tells whether the token has used up more than half of its lifetime
+     * and should be replaced by a fresh one.
+     */
+    public static boolean isDueForRenewal(String token) {
+        String[] parts = token.split("\\.");
+        return parts.length == 3
+                && Long.parseLong(parts[1]) - nowSeconds() < TTL_SECONDS / 2;
+    }
+
+    private static String sign(String payload) {
+        byte[] signature = macs.get().doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+    }
+
+    private static Mac createMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Can't initialize " + ALGORITHM, e);
+        }
+    }
+
+    private static byte[] loadSecret() {
+        String secret = System.getProperty("taxi.auth.secret");
+        if (secret != null && !secret.isBlank()) {
+            return secret.getBytes(StandardCharsets.UTF_8);
+        }
+        logger.warn("taxi.auth.secret is not set, using a random secret. "
+                + "Tokens won't survive a restart or work across nodes.");
+        byte[] random = new byte[32];
+        new SecureRandom().nextBytes(random);
+        return random;
+    }
+
+    private static long nowSeconds() {
+        return System.currentTimeMillis() / 1000;
+    }
+}
@@ -1,32 +1,171 @@
 package taxi.util;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.util.Properties;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * Hands out connections from a bounded pool. Closing a borrowed connection
+ * returns it to the pool, so DAOs keep using try-with-resources as before.
+ * Every setting can be overridden with a {@code taxi.db.*} system property.
+ * Inside {@link TransactionManager#inTransaction} the transaction's connection
+ * is returned instead.
+ *
+ * <p>{@link #getConnection()} always goes to the primary and counts as a
+ * write, inside a transaction too. Read-only DAO methods use
+ * {@link #getReadConnection()}, served by the replicas listed in
+ * {@code taxi.db.replica.urls} unless {@link ReadYourWrites} keeps the
+ * current client on the primary.
+ *
+ * <p>Connections are handed out wrapped by {@link TracingJdbc}, which times
+ * their statements for the slow query log and the current {@link SqlTrace}.
+ */
 public class ConnectionUtil {
     private static final String URL = "jdbc:mysql://localhost:3306/taxi";
     private static final String USERNAME = "<username>";
     private static final String PASSWORD = "<password>";
     private static final String JDBC_DRIVER = "com.mysql.cj.jdbc.Driver";
+    private static final String POOL_NAME = "taxi-pool";
+    private static final String REPLICA_POOL_NAME = "taxi-replica-";
+    private static final int MIN_IDLE = 2;
+    private static final int MAX_POOL_SIZE = 10;
+    private static final long IDLE_TIMEOUT_MS = 600_000;
+    private static final long MAX_LIFETIME_MS = 1_800_000;
+    private static final long BORROW_TIMEOUT_MS = 3_000;
+    private static final long VALIDATION_TIMEOUT_MS = 1_000;
+    private static final long LEAK_DETECTION_THRESHOLD_MS = 10_000;
+    private static final int STREAMING_FETCH_SIZE = 1_000;
+    private static final HikariDataSource dataSource = createDataSource(POOL_NAME,
+            System.getProperty("taxi.db.url", URL),
+            System.getProperty("taxi.db.username", USERNAME),
+            System.getProperty("taxi.db.password", PASSWORD));
+    private static final ReplicaRouter replicaRouter = new ReplicaRouter(createReplicas(),
+            ReplicaRouter.Strategy.valueOf(System.getProperty("taxi.db.replica.strategy",
+                    ReplicaRouter.Strategy.ROUND_ROBIN.name()).toUpperCase()));
 
     static {
-        try {
-            Class.forName(JDBC_DRIVER);
-        } catch (ClassNotFoundException e) {
-            throw new RuntimeException("Can't find SQL Driver", e);
+        if (replicaRouter.hasReplicas()) {
+            TableVersions.setReplicaLagMillis(ReadYourWrites.getWindowMillis());
         }
     }
 
     public static Connection getConnection() {
-        Properties dbProperties = new Properties();
-        dbProperties.setProperty("user", USERNAME);
-        dbProperties.setProperty("password", PASSWORD);
+        ReadYourWrites.recordWrite();
+        Connection transactionalConnection = TransactionManager.getTransactionalConnection();
+        if (transactionalConnection != null) {
+            return transactionalConnection;
+        }
+        return borrowConnection();
+    }
+
+    public static Connection getReadConnection() {
+        Connection transactionalConnection = TransactionManager.getTransactionalConnection();
+        if (transactionalConnection != null) {
+            return transactionalConnection;
+        }
+        if (!replicaRouter.hasReplicas() || ReadYourWrites.mustReadFromPrimary()) {
+            return borrowConnection();
+        }
+        HikariDataSource replica = replicaRouter.next();
         try {
-            return DriverManager.getConnection(URL, dbProperties);
+            return TracingJdbc.wrap(replica.getConnection(), replica.getPoolName());
+        } catch (SQLException e) {
+            throw new RuntimeException("Can't create connection to replica "
+                    + replica.getPoolName(), e);
+        }
+    }
+
+    static Connection borrowConnection() {
+        try {
+            return TracingJdbc.wrap(dataSource.getConnection(), POOL_NAME);
         } catch (SQLException e) {
             throw new RuntimeException("Can't create connection to DB ", e);
         }
     }
+
+    /**
+     * Fetch size that makes the driver stream rows instead of buffering the
+     * whole result set. MySQL Connector/J only streams with
+     * {@code Integer.MIN_VALUE}, other drivers take a regular batch size.
+     */
+    public static int getStreamingFetchSize() {
+        return isMySql(dataSource.getJdbcUrl()) ? Integer.MIN_VALUE : STREAMING_FETCH_SIZE;
+    }
+
+    public static PoolStats getPoolStats() {
+        return toPoolStats(dataSource);
+    }
+
+    public static List<PoolStats> getReplicaPoolStats() {
+        List<PoolStats> stats = new ArrayList<>();
+        for (HikariDataSource replica : replicaRouter.getReplicas()) {
+            stats.add(toPoolStats(replica));
+        }
+        return stats;
+    }
+
+    public static void shutdown() {
+        replicaRouter.getReplicas().forEach(HikariDataSource::close);
+        dataSource.close();
+    }
+
+    private static PoolStats toPoolStats(HikariDataSource source) {
+        HikariPoolMXBean pool = source.getHikariPoolMXBean();
+        return new PoolStats(pool.getActiveConnections(), pool.getIdleConnections(),
+                pool.getThreadsAwaitingConnection(), source.getMaximumPoolSize());
+    }
+
+    private static List<HikariDataSource> createReplicas() {
+        String username = System.getProperty("taxi.db.replica.username",
+                dataSource.getUsername());
+        String password = System.getProperty("taxi.db.replica.password",
+                dataSource.getPassword());
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : System.getProperty("taxi.db.replica.urls", "").split(",")) {
+            if (!url.isBlank()) {
+                replicas.add(createDataSource(REPLICA_POOL_NAME + replicas.size(),
+                        url.trim(), username, password));
+            }
+        }
+        return replicas;
+    }
+
+    private static HikariDataSource createDataSource(String poolName, String url,
+                                                     String username, String password) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setDriverClassName(System.getProperty("taxi.db.driver", JDBC_DRIVER));
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setMinimumIdle(Integer.getInteger("taxi.db.pool.minIdle", MIN_IDLE));
+        config.setMaximumPoolSize(Integer.getInteger("taxi.db.pool.maxSize", MAX_POOL_SIZE));
+        config.setIdleTimeout(Long.getLong("taxi.db.pool.idleTimeoutMs", IDLE_TIMEOUT_MS));
+        config.setMaxLifetime(Long.getLong("taxi.db.pool.maxLifetimeMs", MAX_LIFETIME_MS));
+        config.setConnectionTimeout(Long.getLong("taxi.db.pool.borrowTimeoutMs",
+                BORROW_TIMEOUT_MS));
+        config.setValidationTimeout(Long.getLong("taxi.db.pool.validationTimeoutMs",
+                VALIDATION_TIMEOUT_MS));
+        config.setLeakDetectionThreshold(Long.getLong("taxi.db.pool.leakDetectionMs",
+                LEAK_DETECTION_THRESHOLD_MS));
+        // Don't fail class initialization when the database is not up yet,
+        // the pool keeps retrying in the background and on every borrow.
+        config.setInitializationFailTimeout(-1);
+        if (isMySql(url)) {
+            config.addDataSourceProperty("cachePrepStmts", "true");
+            config.addDataSourceProperty("prepStmtCacheSize", "250");
+            config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+            config.addDataSourceProperty("useServerPrepStmts", "true");
+            config.addDataSourceProperty("rewriteBatchedStatements", "true");
+        }
+        return new HikariDataSource(config);
+    }
+
+    private static boolean isMySql(String url) {
+        return url.startsWith("jdbc:mysql:");
+    }
 }
@@ -0,0 +1,124 @@
+package taxi.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs DAO work off the container's request threads. It has one thread per
+ * pooled connection, primary and replicas together, as more threads would
+ * only wait for a connection, and queues up to {@code taxi.async.queueSize}
+ * tasks (default 100). Work beyond that is rejected, so the caller can answer
+ * 503 at once instead of piling up requests behind a slow database.
+ * In virtual mode, {@code -Dtaxi.threads=virtual} or the {@code jdk21} build
+ * profile, every task gets its own virtual thread instead, under the same
+ * limits.
+ */
+public class DaoExecutor {
+    private static final int DEFAULT_QUEUE_SIZE = 100;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+    private static final LongAdder rejections = new LongAdder();
+    private static final String MODE_PROPERTY = "taxi.threads";
+    private static volatile Mode mode = Mode.valueOf(
+            System.getProperty(MODE_PROPERTY, Mode.PLATFORM.name()).toUpperCase());
+
+    public static ExecutorService get() {
+        return Holder.executor;
+    }
+
+    /**
+     * Takes the mode from the deployment descriptor unless {@code -Dtaxi.threads}
+     * is set. Only has an effect before the first DAO work is submitted.
+     */
+    public static void configure(String threads) {
+        if (System.getProperty(MODE_PROPERTY) != null || threads == null || threads.isBlank()) {
+            return;
+        }
+        Mode configured = Mode.valueOf(threads.trim().toUpperCase());
+        if (configured == Mode.VIRTUAL && !isVirtualThreadsSupported()) {
+            throw new RuntimeException("Virtual threads need JDK 21 or newer, running on "
+                    + Runtime.version());
+        }
+        mode = configured;
+    }
+
+    public static Mode getMode() {
+        return mode;
+    }
+
+    public static int getThreadCount() {
+        return Holder.THREAD_COUNT;
+    }
+
+    public static int getQueuedCount() {
+        return Holder.executor instanceof ThreadPoolExecutor
+                ? ((ThreadPoolExecutor) Holder.executor).getQueue().size()
+                : ((VirtualThreadExecutor) Holder.executor).getWaitingCount();
+    }
+
+    public static long getRejectedCount() {
+        return rejections.sum();
+    }
+
+    public static boolean isVirtualThreadsSupported() {
+        return VirtualThreadExecutor.isSupported();
+    }
+
+    /**
+     * Creates an executor like the one DAO work runs on, for benchmarks and
+     * tools that compare the two modes without a database.
+     */
+    public static ExecutorService create(Mode mode, int threads, int queueSize) {
+        if (mode == Mode.VIRTUAL) {
+            return new VirtualThreadExecutor(threads, queueSize, rejections);
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = task -> {
+            Thread thread = new Thread(task, "taxi-dao-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), threadFactory,
+                (task, pool) -> {
+                    rejections.increment();
+                    throw new RejectedExecutionException("DAO executor is full");
+                });
+    }
+
+    public static void shutdown() {
+        Holder.executor.shutdown();
+        try {
+            Holder.executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public enum Mode {
+        PLATFORM, VIRTUAL
+    }
+
+    /**
+     * Sizing needs the connection pools, so they are only set up once DAO
+     * work is actually submitted.
+     */
+    private static class Holder {
+        private static final int THREAD_COUNT = countConnections();
+        private static final ExecutorService executor = create(mode, THREAD_COUNT,
+                Integer.getInteger("taxi.async.queueSize", DEFAULT_QUEUE_SIZE));
+
+        private static int countConnections() {
+            int connections = ConnectionUtil.getPoolStats().getMaxSize();
+            for (PoolStats replica : ConnectionUtil.getReplicaPoolStats()) {
+                connections += replica.getMaxSize();
+            }
+            return connections;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package taxi.util;
+
+public class PoolStats {
+    private final int active;
+    private final int idle;
+    private final int waiting;
+    private final int maxSize;
+
+    public PoolStats(int active, int idle, int waiting, int maxSize) {
+        this.active = active;
+        this.idle = idle;
+        this.waiting = waiting;
+        this.maxSize = maxSize;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getWaiting() {
+        return waiting;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStats{"
+                + "active=" + active
+                + ", idle=" + idle
+                + ", waiting=" + waiting
+                + ", maxSize=" + maxSize
+                + '}';
+    }
+}
@@ -0,0 +1,46 @@
+package taxi.util;
+
+/**
+ * Remembers when the current client last wrote to the primary database.
+ * For {@code taxi.db.replica.readYourWritesMs} after a write its reads are
+ * served by the primary, so it never sees a replica that hasn't caught up
+ * with its own changes yet. The time travels between requests in a cookie,
+ * see {@code taxi.web.filter.ReadYourWritesFilter}.
+ */
+public class ReadYourWrites {
+    private static final long DEFAULT_WINDOW_MS = 5_000;
+    private static final long WINDOW_MS = Long.getLong("taxi.db.replica.readYourWritesMs",
+            DEFAULT_WINDOW_MS);
+    private static final ThreadLocal<Long> lastWriteMillis = new ThreadLocal<>();
+
+    public static long getWindowMillis() {
+        return WINDOW_MS;
+    }
+
+    public static Long getLastWriteMillis() {
+        return lastWriteMillis.get();
+    }
+
+    public static void restore(Long writeMillis) {
+        if (writeMillis == null) {
+            lastWriteMillis.remove();
+        } else {
+            lastWriteMillis.set(writeMillis);
+        }
+    }
+
+    public static void clear() {
+        lastWriteMillis.remove();
+    }
+
+    static void recordWrite() {
+        if (WINDOW_MS > 0) {
+            lastWriteMillis.set(System.currentTimeMillis());
+        }
+    }
+
+    static boolean mustReadFromPrimary() {
+        Long lastWrite = lastWriteMillis.get();
+        return lastWrite != null && System.currentTimeMillis() - lastWrite < WINDOW_MS;
+    }
+}
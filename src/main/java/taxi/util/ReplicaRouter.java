@@ -0,0 +1,48 @@
+package taxi.util;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ReplicaRouter {
+    private final List<HikariDataSource> replicas;
+    private final Strategy strategy;
+    private final AtomicInteger counter = new AtomicInteger();
+
+    ReplicaRouter(List<HikariDataSource> replicas, Strategy strategy) {
+        this.replicas = List.copyOf(replicas);
+        this.strategy = strategy;
+    }
+
+    boolean hasReplicas() {
+        return !replicas.isEmpty();
+    }
+
+    List<HikariDataSource> getReplicas() {
+        return replicas;
+    }
+
+    HikariDataSource next() {
+        int start = Math.floorMod(counter.getAndIncrement(), replicas.size());
+        if (strategy == Strategy.ROUND_ROBIN) {
+            return replicas.get(start);
+        }
+        // least loaded, ties go to the round robin candidate so load spreads
+        HikariDataSource leastLoaded = replicas.get(start);
+        int leastActive = leastLoaded.getHikariPoolMXBean().getActiveConnections();
+        for (int i = 1; i < replicas.size() && leastActive > 0; i++) {
+            HikariDataSource replica = replicas.get((start + i) % replicas.size());
+            int active = replica.getHikariPoolMXBean().getActiveConnections();
+            if (active < leastActive) {
+                leastLoaded = replica;
+                leastActive = active;
+            }
+        }
+        return leastLoaded;
+    }
+
+    enum Strategy {
+        ROUND_ROBIN,
+        LEAST_LOADED
+    }
+}
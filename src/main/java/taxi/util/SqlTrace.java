@@ -0,0 +1,84 @@
+package taxi.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import taxi.metrics.Histogram;
+
+/**
+ * Counts the statements and connections one HTTP request uses. The trace is
+ * bound to the thread doing the request's database work, see
+ * {@link #bind(SqlTrace)}; statements run outside any trace are only counted
+ * in the totals. A request running more than
+ * {@code taxi.sql.requestStatementsWarn} statements (default 50) is logged to
+ * the slow query log, that is usually a query inside a loop.
+ */
+public class SqlTrace {
+    private static final long DEFAULT_STATEMENTS_WARN = 50;
+    private static final long STATEMENTS_WARN = Long.getLong("taxi.sql.requestStatementsWarn",
+            DEFAULT_STATEMENTS_WARN);
+    private static final ThreadLocal<SqlTrace> current = new ThreadLocal<>();
+    private static final Histogram statementsPerRequest = new Histogram();
+    private static final Histogram connectionsPerRequest = new Histogram();
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder connections = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+
+    public static SqlTrace current() {
+        return current.get();
+    }
+
+    /**
+     * Makes the trace the current one of this thread, {@code null} unbinds.
+     */
+    public static void bind(SqlTrace trace) {
+        if (trace == null) {
+            current.remove();
+        } else {
+            current.set(trace);
+        }
+    }
+
+    public static Histogram getStatementsPerRequest() {
+        return statementsPerRequest;
+    }
+
+    public static Histogram getConnectionsPerRequest() {
+        return connectionsPerRequest;
+    }
+
+    public long getStatementCount() {
+        return statements.sum();
+    }
+
+    public long getConnectionCount() {
+        return connections.sum();
+    }
+
+    public long getNanos() {
+        return nanos.sum();
+    }
+
+    /**
+     * Adds the request's counts to the per request figures. Called once,
+     * when the response is complete.
+     */
+    public void finish(String request) {
+        long statementCount = getStatementCount();
+        statementsPerRequest.record(statementCount);
+        connectionsPerRequest.record(getConnectionCount());
+        if (statementCount > STATEMENTS_WARN) {
+            TracingJdbc.slowLogger.warn("{} ran {} statements on {} connections, {} ms in SQL",
+                    request, statementCount, getConnectionCount(),
+                    TimeUnit.NANOSECONDS.toMillis(getNanos()));
+        }
+    }
+
+    void recordConnection() {
+        connections.increment();
+    }
+
+    void recordStatement(long elapsedNanos) {
+        statements.increment();
+        nanos.add(elapsedNanos);
+    }
+}
@@ -0,0 +1,63 @@
+package taxi.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory version counters of the tables behind the list pages. DAOs bump
+ * a table once a write to it is committed, so a page read after seeing
+ * version v holds at least the data of version v. The counters start over on
+ * every restart, {@link #getEpoch()} tells the runs apart. They only count
+ * writes made through this node.
+ */
+public class TableVersions {
+    private static final long EPOCH = System.currentTimeMillis();
+    private static final AtomicLongArray versions = new AtomicLongArray(Table.values().length);
+    private static final AtomicLongArray changedMillis =
+            new AtomicLongArray(Table.values().length);
+    private static volatile long replicaLagMillis;
+
+    public static long getEpoch() {
+        return EPOCH;
+    }
+
+    public static long getVersion(Table table) {
+        return versions.get(table.ordinal());
+    }
+
+    /**
+     * Bumps the table now, or when the current transaction commits. A
+     * transaction that rolls back leaves the table's version alone.
+     */
+    public static void bump(Table table) {
+        TransactionManager.afterCommit(() -> {
+            changedMillis.set(table.ordinal(), System.currentTimeMillis());
+            versions.incrementAndGet(table.ordinal());
+        });
+    }
+
+    /**
+     * Tells whether none of the tables changed recently enough for a replica
+     * to still serve their previous version.
+     */
+    public static boolean isSettled(Table... tables) {
+        long lag = replicaLagMillis;
+        if (lag <= 0) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        for (Table table : tables) {
+            if (now - changedMillis.get(table.ordinal()) < lag) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static void setReplicaLagMillis(long lagMillis) {
+        replicaLagMillis = lagMillis;
+    }
+
+    public enum Table {
+        CARS, DRIVERS, MANUFACTURERS
+    }
+}
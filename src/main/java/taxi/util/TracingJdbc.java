@@ -0,0 +1,247 @@
+package taxi.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.metrics.Histogram;
+
+/**
+ * Wraps pooled connections so every statement run on them is timed and
+ * counted. A statement is finished when its result set, the statement or the
+ * connection is closed, whichever comes first; then the rows it returned or
+ * changed are known. Statements whose execution took
+ * {@code taxi.sql.slowMs} (default 200) or longer are written to the
+ * {@value #SLOW_LOGGER} logger with their SQL, bind count and rows.
+ * {@code -Dtaxi.sql.trace=false} hands out the pooled connections unwrapped.
+ */
+public class TracingJdbc {
+    public static final String SLOW_LOGGER = "taxi.sql.slow";
+    static final Logger slowLogger = LogManager.getLogger(SLOW_LOGGER);
+    private static final boolean ENABLED = Boolean.parseBoolean(
+            System.getProperty("taxi.sql.trace", "true"));
+    private static final long DEFAULT_SLOW_MS = 200;
+    private static final long SLOW_NANOS = TimeUnit.MILLISECONDS.toNanos(
+            Long.getLong("taxi.sql.slowMs", DEFAULT_SLOW_MS));
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery",
+            "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+    private static final Histogram statementNanos = new Histogram();
+    private static final LongAdder slowStatements = new LongAdder();
+
+    public static Histogram getStatementNanos() {
+        return statementNanos;
+    }
+
+    public static long getSlowStatementCount() {
+        return slowStatements.sum();
+    }
+
+    static Connection wrap(Connection connection, String pool) {
+        if (!ENABLED) {
+            return connection;
+        }
+        SqlTrace trace = SqlTrace.current();
+        if (trace != null) {
+            trace.recordConnection();
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, new ConnectionHandler(connection, pool));
+    }
+
+    private static Object invoke(Object target, Object proxy, Method method, Object[] args)
+            throws Throwable {
+        if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+            return proxy == args[0];
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static class ConnectionHandler implements InvocationHandler {
+        private final Connection connection;
+        private final String pool;
+        private final List<StatementHandler> statements = new ArrayList<>();
+
+        ConnectionHandler(Connection connection, String pool) {
+            this.connection = connection;
+            this.pool = pool;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("close")) {
+                statements.forEach(StatementHandler::finish);
+                statements.clear();
+            }
+            Object result = TracingJdbc.invoke(connection, proxy, method, args);
+            if (result instanceof Statement && (name.equals("prepareStatement")
+                    || name.equals("createStatement"))) {
+                String sql = name.equals("prepareStatement") ? (String) args[0] : null;
+                StatementHandler handler = new StatementHandler((Statement) result, sql, pool);
+                statements.add(handler);
+                Class<?> type = result instanceof PreparedStatement
+                        ? PreparedStatement.class : Statement.class;
+                return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                        handler);
+            }
+            return result;
+        }
+    }
+
+    private static class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final String sql;
+        private final String pool;
+        private final BitSet binds = new BitSet();
+        private Execution pending;
+
+        StatementHandler(Statement statement, String sql, String pool) {
+            this.statement = statement;
+            this.sql = sql;
+            this.pool = pool;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (EXECUTE_METHODS.contains(name)) {
+                return execute(proxy, method, args);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2
+                    && args[0] instanceof Integer
+                    && method.getDeclaringClass() == PreparedStatement.class) {
+                binds.set((Integer) args[0]);
+            } else if (name.equals("clearParameters")) {
+                binds.clear();
+            } else if (name.equals("close")) {
+                finish();
+            }
+            return TracingJdbc.invoke(statement, proxy, method, args);
+        }
+
+        void finish() {
+            if (pending != null) {
+                pending.finish();
+                pending = null;
+            }
+        }
+
+        private Object execute(Object proxy, Method method, Object[] args) throws Throwable {
+            finish();
+            String executedSql = args != null && args.length > 0 && args[0] instanceof String
+                    ? (String) args[0] : sql;
+            Execution execution = new Execution(executedSql, binds.cardinality(), pool);
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = TracingJdbc.invoke(statement, proxy, method, args);
+            } finally {
+                execution.executed(System.nanoTime() - start);
+            }
+            if (result instanceof ResultSet) {
+                pending = execution;
+                return Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                        new Class<?>[] {ResultSet.class},
+                        new ResultSetHandler((ResultSet) result, execution));
+            }
+            execution.addRows(countRows(result));
+            execution.finish();
+            return result;
+        }
+
+        private static long countRows(Object result) {
+            if (result instanceof Number) {
+                return ((Number) result).longValue();
+            }
+            long rows = 0;
+            if (result instanceof int[]) {
+                for (int count : (int[]) result) {
+                    rows += Math.max(count, 0);
+                }
+            } else if (result instanceof long[]) {
+                for (long count : (long[]) result) {
+                    rows += Math.max(count, 0);
+                }
+            }
+            return rows;
+        }
+    }
+
+    private static class ResultSetHandler implements InvocationHandler {
+        private final ResultSet resultSet;
+        private final Execution execution;
+
+        ResultSetHandler(ResultSet resultSet, Execution execution) {
+            this.resultSet = resultSet;
+            this.execution = execution;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = TracingJdbc.invoke(resultSet, proxy, method, args);
+            String name = method.getName();
+            if (name.equals("next") && Boolean.TRUE.equals(result)) {
+                execution.addRows(1);
+            } else if (name.equals("close")) {
+                execution.finish();
+            }
+            return result;
+        }
+    }
+
+    private static class Execution {
+        private final String sql;
+        private final int binds;
+        private final String pool;
+        private long nanos;
+        private long rows;
+        private boolean finished;
+
+        Execution(String sql, int binds, String pool) {
+            this.sql = sql;
+            this.binds = binds;
+            this.pool = pool;
+        }
+
+        void executed(long elapsedNanos) {
+            nanos = elapsedNanos;
+            statementNanos.record(elapsedNanos);
+            SqlTrace trace = SqlTrace.current();
+            if (trace != null) {
+                trace.recordStatement(elapsedNanos);
+            }
+        }
+
+        void addRows(long count) {
+            rows += count;
+        }
+
+        void finish() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            if (nanos >= SLOW_NANOS) {
+                slowStatements.increment();
+                slowLogger.warn("{} ms, {} binds, {} rows on {}: {}",
+                        TimeUnit.NANOSECONDS.toMillis(nanos), binds, rows, pool, sql);
+            }
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package taxi.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.exception.DataProcessingException;
+
+/**
+ * Runs a unit of work on a single connection with a single commit.
+ * While a transaction is open on the current thread,
+ * {@link ConnectionUtil#getConnection()} returns its connection, and closing
+ * that connection is a no-op, so DAO code stays unchanged. The connection is
+ * borrowed lazily on first use. A nested unit of work joins the outer
+ * transaction behind a savepoint, its failure only undoes its own statements.
+ */
+public class TransactionManager {
+    private static final Logger logger = LogManager.getLogger(TransactionManager.class);
+    private static final ThreadLocal<Transaction> currentTransaction = new ThreadLocal<>();
+    private static final LongAdder commits = new LongAdder();
+    private static final LongAdder rollbacks = new LongAdder();
+    private static final LongAdder commitNanos = new LongAdder();
+    private static final AtomicLong maxCommitNanos = new AtomicLong();
+
+    public static <T> T inTransaction(Supplier<T> work) {
+        Transaction transaction = currentTransaction.get();
+        if (transaction != null) {
+            return inNestedTransaction(transaction, work);
+        }
+        transaction = new Transaction();
+        currentTransaction.set(transaction);
+        T result;
+        try {
+            result = work.get();
+            transaction.commit();
+        } catch (RuntimeException | Error e) {
+            transaction.rollback();
+            throw e;
+        } finally {
+            currentTransaction.remove();
+            transaction.close();
+        }
+        transaction.runAfterCommit();
+        return result;
+    }
+
+    public static void runInTransaction(Runnable work) {
+        inTransaction(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the action once the outermost transaction on this thread commits,
+     * or right away when there is none. Actions of a rolled back transaction
+     * are dropped.
+     */
+    public static void afterCommit(Runnable action) {
+        Transaction transaction = currentTransaction.get();
+        if (transaction == null) {
+            action.run();
+        } else {
+            transaction.afterCommit(action);
+        }
+    }
+
+    public static boolean isTransactionActive() {
+        return currentTransaction.get() != null;
+    }
+
+    public static long getCommitCount() {
+        return commits.sum();
+    }
+
+    public static long getRollbackCount() {
+        return rollbacks.sum();
+    }
+
+    public static long getAverageCommitMicros() {
+        long count = commits.sum();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(commitNanos.sum() / count);
+    }
+
+    public static long getMaxCommitMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(maxCommitNanos.get());
+    }
+
+    static Connection getTransactionalConnection() {
+        Transaction transaction = currentTransaction.get();
+        return transaction == null ? null : transaction.getConnection();
+    }
+
+    private static <T> T inNestedTransaction(Transaction transaction, Supplier<T> work) {
+        Savepoint savepoint = transaction.setSavepoint();
+        try {
+            T result = work.get();
+            transaction.releaseSavepoint(savepoint);
+            return result;
+        } catch (RuntimeException | Error e) {
+            transaction.rollbackTo(savepoint);
+            throw e;
+        }
+    }
+
+    private static class Transaction {
+        private final List<Runnable> afterCommit = new ArrayList<>();
+        private Connection connection;
+        private Connection unclosableConnection;
+
+        Connection getConnection() {
+            if (connection == null) {
+                connection = ConnectionUtil.borrowConnection();
+                try {
+                    connection.setAutoCommit(false);
+                } catch (SQLException e) {
+                    close();
+                    connection = null;
+                    throw new DataProcessingException("Can't start transaction", e);
+                }
+                unclosableConnection = (Connection) Proxy.newProxyInstance(
+                        Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                        (proxy, method, args) -> {
+                            if (method.getName().equals("close")) {
+                                return null;
+                            }
+                            try {
+                                return method.invoke(connection, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                        });
+            }
+            return unclosableConnection;
+        }
+
+        void afterCommit(Runnable action) {
+            afterCommit.add(action);
+        }
+
+        void runAfterCommit() {
+            for (Runnable action : afterCommit) {
+                try {
+                    action.run();
+                } catch (RuntimeException e) {
+                    logger.error("After commit action failed", e);
+                }
+            }
+        }
+
+        Savepoint setSavepoint() {
+            if (connection == null) {
+                return null;
+            }
+            try {
+                return connection.setSavepoint();
+            } catch (SQLException e) {
+                throw new DataProcessingException("Can't set savepoint", e);
+            }
+        }
+
+        void releaseSavepoint(Savepoint savepoint) {
+            if (savepoint == null) {
+                return;
+            }
+            try {
+                connection.releaseSavepoint(savepoint);
+            } catch (SQLException e) {
+                throw new DataProcessingException("Can't release savepoint", e);
+            }
+        }
+
+        void rollbackTo(Savepoint savepoint) {
+            if (connection == null) {
+                return;
+            }
+            try {
+                if (savepoint == null) {
+                    connection.rollback();
+                } else {
+                    connection.rollback(savepoint);
+                }
+            } catch (SQLException e) {
+                logger.error("Can't roll back nested transaction", e);
+            }
+        }
+
+        void commit() {
+            if (connection == null) {
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                connection.commit();
+            } catch (SQLException e) {
+                throw new DataProcessingException("Can't commit transaction", e);
+            }
+            long elapsed = System.nanoTime() - start;
+            commits.increment();
+            commitNanos.add(elapsed);
+            maxCommitNanos.accumulateAndGet(elapsed, Math::max);
+            logger.debug("Transaction committed in {} us",
+                    TimeUnit.NANOSECONDS.toMicros(elapsed));
+        }
+
+        void rollback() {
+            if (connection == null) {
+                return;
+            }
+            try {
+                connection.rollback();
+                rollbacks.increment();
+            } catch (SQLException e) {
+                logger.error("Can't roll back transaction", e);
+            }
+        }
+
+        void close() {
+            if (connection == null) {
+                return;
+            }
+            try (Connection pooledConnection = connection) {
+                pooledConnection.setAutoCommit(true);
+            } catch (SQLException e) {
+                logger.error("Can't release transaction connection", e);
+            }
+        }
+    }
+}
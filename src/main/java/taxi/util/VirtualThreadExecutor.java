@@ -0,0 +1,116 @@
+package taxi.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Starts a virtual thread per task, with two semaphores keeping it as
+ * bounded as the platform thread executor: at most {@code connections} tasks
+ * run at once, the rest wait parked, and at most {@code connections + queueSize}
+ * are accepted at all. Virtual threads are looked up reflectively, so the
+ * project still builds for JDK 11 and this class only fails when used on an
+ * older runtime.
+ */
+class VirtualThreadExecutor extends AbstractExecutorService {
+    private final ExecutorService threads;
+    private final Semaphore running;
+    private final Semaphore accepted;
+    private final LongAdder rejections;
+
+    VirtualThreadExecutor(int connections, int queueSize, LongAdder rejections) {
+        this(newVirtualThreadPerTaskExecutor(), connections, queueSize, rejections);
+    }
+
+    VirtualThreadExecutor(ExecutorService threads, int connections, int queueSize,
+                          LongAdder rejections) {
+        this.threads = threads;
+        this.running = new Semaphore(connections, true);
+        this.accepted = new Semaphore(connections + queueSize);
+        this.rejections = rejections;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!accepted.tryAcquire()) {
+            rejections.increment();
+            throw new RejectedExecutionException("DAO executor is full");
+        }
+        try {
+            threads.execute(() -> {
+                try {
+                    running.acquire();
+                    try {
+                        task.run();
+                    } finally {
+                        running.release();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    accepted.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            accepted.release();
+            rejections.increment();
+            throw e;
+        }
+    }
+
+    int getWaitingCount() {
+        return running.getQueueLength();
+    }
+
+    @Override
+    public void shutdown() {
+        threads.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return threads.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return threads.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return threads.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return threads.awaitTermination(timeout, unit);
+    }
+
+    static boolean isSupported() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException("Virtual threads need JDK 21 or newer, running on "
+                    + Runtime.version(), e);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new RuntimeException("Can't start virtual threads on " + Runtime.version(), e);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package taxi.web;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.exception.InvalidPageRequestException;
+import taxi.util.DaoExecutor;
+import taxi.util.ReadYourWrites;
+import taxi.util.SqlTrace;
+
+/**
+ * Moves the database part of a request to the {@link DaoExecutor}, so the
+ * container thread is free while the database works. The work leaves its
+ * results in request attributes, then the request is dispatched back to a
+ * container thread to render them. A full executor or work running longer
+ * than {@code taxi.async.timeoutMs} (default 10000) is answered with 503.
+ */
+public class AsyncDao {
+    private static final Logger logger = LogManager.getLogger(AsyncDao.class);
+    private static final long DEFAULT_TIMEOUT_MS = 10_000;
+    private static final long TIMEOUT_MS = Long.getLong("taxi.async.timeoutMs",
+            DEFAULT_TIMEOUT_MS);
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    /**
+     * Runs the work and dispatches to the path, or back to the same servlet
+     * with the {@code ASYNC} dispatcher type when the path is {@code null}.
+     */
+    public static void dispatch(HttpServletRequest req, HttpServletResponse resp, String path,
+                                Runnable work) {
+        dispatch(req, resp, path, work, DaoExecutor.get(), TIMEOUT_MS);
+    }
+
+    static void dispatch(HttpServletRequest req, HttpServletResponse resp, String path,
+                         Runnable work, ExecutorService executor, long timeoutMs) {
+        AsyncContext asyncContext = req.startAsync(req, resp);
+        asyncContext.setTimeout(timeoutMs);
+        AtomicBoolean finished = new AtomicBoolean();
+        AtomicReference<Future<?>> future = new AtomicReference<>();
+        asyncContext.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                if (fail(asyncContext, finished, HttpServletResponse.SC_SERVICE_UNAVAILABLE)) {
+                    logger.warn("{} timed out after {} ms", req.getRequestURI(), timeoutMs);
+                    cancel(future.get());
+                }
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                finished.set(true);
+                cancel(future.get());
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) {
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+        Long lastWrite = ReadYourWrites.getLastWriteMillis();
+        SqlTrace trace = SqlTrace.current();
+        try {
+            future.set(executor.submit(() -> {
+                ReadYourWrites.restore(lastWrite);
+                SqlTrace.bind(trace);
+                try {
+                    work.run();
+                    if (finished.compareAndSet(false, true)) {
+                        if (path == null) {
+                            asyncContext.dispatch();
+                        } else {
+                            asyncContext.dispatch(path);
+                        }
+                    }
+                } catch (InvalidPageRequestException e) {
+                    fail(asyncContext, finished, HttpServletResponse.SC_BAD_REQUEST,
+                            e.getMessage());
+                } catch (RuntimeException e) {
+                    logger.error("Database work of {} failed", req.getRequestURI(), e);
+                    fail(asyncContext, finished, HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                } finally {
+                    ReadYourWrites.clear();
+                    SqlTrace.bind(null);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            logger.warn("DAO executor is full, rejected {}", req.getRequestURI());
+            fail(asyncContext, finished, HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        }
+    }
+
+    private static boolean fail(AsyncContext asyncContext, AtomicBoolean finished, int status) {
+        return fail(asyncContext, finished, status, null);
+    }
+
+    private static boolean fail(AsyncContext asyncContext, AtomicBoolean finished, int status,
+                                String message) {
+        if (!finished.compareAndSet(false, true)) {
+            return false;
+        }
+        HttpServletResponse resp = (HttpServletResponse) asyncContext.getResponse();
+        try {
+            if (status == HttpServletResponse.SC_SERVICE_UNAVAILABLE) {
+                resp.setHeader("Retry-After", RETRY_AFTER_SECONDS);
+            }
+            if (message == null) {
+                resp.sendError(status);
+            } else {
+                resp.sendError(status, message);
+            }
+        } catch (IOException | IllegalStateException e) {
+            logger.warn("Can't send {} for {}", status, asyncContext.getRequest(), e);
+        } finally {
+            asyncContext.complete();
+        }
+        return true;
+    }
+
+    private static void cancel(Future<?> future) {
+        if (future != null) {
+            future.cancel(true);
+        }
+    }
+}
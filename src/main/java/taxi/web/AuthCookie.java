@@ -0,0 +1,43 @@
+package taxi.web;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import taxi.util.AuthTokens;
+
+/**
+ * Carries the signed {@link AuthTokens} token of the logged in driver.
+ * The header is written by hand because servlet 4 cookies can't set SameSite.
+ */
+public class AuthCookie {
+    public static final String USER_ID_ATTRIBUTE = "user_id";
+    private static final String COOKIE_NAME = "taxi_auth";
+
+    public static String read(HttpServletRequest req) {
+        Cookie[] cookies = req.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+
+    public static void write(HttpServletRequest req, HttpServletResponse resp, Long userId) {
+        addCookie(req, resp, AuthTokens.issue(userId), AuthTokens.getTtlSeconds());
+    }
+
+    public static void clear(HttpServletRequest req, HttpServletResponse resp) {
+        addCookie(req, resp, "", 0);
+    }
+
+    private static void addCookie(HttpServletRequest req, HttpServletResponse resp,
+                                  String value, long maxAgeSeconds) {
+        resp.addHeader("Set-Cookie", COOKIE_NAME + "=" + value
+                + "; Path=/; Max-Age=" + maxAgeSeconds + "; HttpOnly; SameSite=Lax"
+                + (req.isSecure() ? "; Secure" : ""));
+    }
+}
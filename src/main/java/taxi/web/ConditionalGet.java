@@ -0,0 +1,67 @@
+package taxi.web;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import taxi.util.TableVersions;
+
+/**
+ * ETags for list pages, built from the versions of the tables the page is
+ * read from and the logged in user, so an unchanged page is answered with
+ * 304 without querying the database. Tags are weak, the same page may be
+ * sent compressed or not. Set {@code -Dtaxi.etag.enabled=false} when several
+ * nodes serve the same clients without sticky sessions, as each node only
+ * counts its own writes.
+ */
+public class ConditionalGet {
+    private static final boolean ENABLED = Boolean.parseBoolean(
+            System.getProperty("taxi.etag.enabled", "true"));
+    private static final String ETAG_HEADER = "ETag";
+    private static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+    private static final String WEAK_PREFIX = "W/";
+
+    /**
+     * Sets the ETag of the page and, if the client already has it, answers
+     * 304. Returns {@code true} when the response is complete.
+     */
+    public static boolean isNotModified(HttpServletRequest req, HttpServletResponse resp,
+                                        TableVersions.Table... tables) {
+        if (!ENABLED || !TableVersions.isSettled(tables)) {
+            return false;
+        }
+        String etag = buildEtag(req.getAttribute(AuthCookie.USER_ID_ATTRIBUTE), tables);
+        resp.setHeader(ETAG_HEADER, etag);
+        resp.setHeader("Cache-Control", "private, no-cache");
+        if (matches(req.getHeader(IF_NONE_MATCH_HEADER), etag)) {
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+        return false;
+    }
+
+    static String buildEtag(Object userId, TableVersions.Table... tables) {
+        StringBuilder etag = new StringBuilder(WEAK_PREFIX).append('"')
+                .append(Long.toString(TableVersions.getEpoch(), Character.MAX_RADIX))
+                .append('-').append(userId == null ? "" : userId);
+        for (TableVersions.Table table : tables) {
+            etag.append('-').append(TableVersions.getVersion(table));
+        }
+        return etag.append('"').toString();
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaqueTag = etag.substring(WEAK_PREFIX.length());
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith(WEAK_PREFIX)) {
+                candidate = candidate.substring(WEAK_PREFIX.length());
+            }
+            if (candidate.equals("*") || candidate.equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,51 @@
+package taxi.web;
+
+import javax.servlet.http.HttpServletRequest;
+import taxi.exception.InvalidPageRequestException;
+import taxi.model.PageRequest;
+
+/**
+ * Reads a {@link PageRequest} from the {@code after}, {@code before},
+ * {@code size} and {@code sort} parameters. Ids and sizes that aren't
+ * positive numbers, or both {@code after} and {@code before}, are rejected
+ * with an {@link InvalidPageRequestException}.
+ */
+public class PageRequestParser {
+    private static final String AFTER_PARAMETER = "after";
+    private static final String BEFORE_PARAMETER = "before";
+    private static final String SIZE_PARAMETER = "size";
+    private static final String SORT_PARAMETER = "sort";
+
+    public static PageRequest parse(HttpServletRequest req) {
+        Long afterId = parsePositive(AFTER_PARAMETER, req.getParameter(AFTER_PARAMETER));
+        Long beforeId = parsePositive(BEFORE_PARAMETER, req.getParameter(BEFORE_PARAMETER));
+        if (afterId != null && beforeId != null) {
+            throw new InvalidPageRequestException("Only one of " + AFTER_PARAMETER + " and "
+                    + BEFORE_PARAMETER + " can be given");
+        }
+        Long size = parsePositive(SIZE_PARAMETER, req.getParameter(SIZE_PARAMETER));
+        return new PageRequest(afterId, beforeId,
+                size == null ? PageRequest.DEFAULT_SIZE : (int) Math.min(size, Integer.MAX_VALUE),
+                req.getParameter(SORT_PARAMETER));
+    }
+
+    private static Long parsePositive(String name, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        long number;
+        try {
+            number = Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw notPositive(name);
+        }
+        if (number <= 0) {
+            throw notPositive(name);
+        }
+        return number;
+    }
+
+    private static InvalidPageRequestException notPositive(String name) {
+        return new InvalidPageRequestException(name + " must be a positive number");
+    }
+}
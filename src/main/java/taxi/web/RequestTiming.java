@@ -0,0 +1,142 @@
+package taxi.web;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import javax.servlet.DispatcherType;
+import javax.servlet.ServletRequest;
+import taxi.metrics.EndpointTimings;
+import taxi.util.SqlTrace;
+
+/**
+ * Splits one request into the phases reported in its {@code Server-Timing}
+ * header and in {@link EndpointTimings}:
+ * <ul>
+ *     <li>{@code auth}, the authentication filter;</li>
+ *     <li>{@code service}, the servlet, without the rendering it forwards to;</li>
+ *     <li>{@code async}, waiting for and running the work handed to
+ *     {@link AsyncDao}, for requests that went async;</li>
+ *     <li>{@code db}, executing SQL, overlapping the phases above;</li>
+ *     <li>{@code render}, JSPs forwarded or dispatched to;</li>
+ *     <li>{@code total}.</li>
+ * </ul>
+ * Kept in a request attribute, it is only touched by one thread at a time,
+ * the container orders the dispatches of a request.
+ */
+public class RequestTiming {
+    public static final String ATTRIBUTE = RequestTiming.class.getName();
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+    private final String endpoint;
+    private final SqlTrace sqlTrace;
+    private final long start;
+    private long serviceStart;
+    private long requestEnd;
+    private boolean async;
+    private long asyncEnd;
+    private long renderStart;
+    private int renderDepth;
+    private long renderNanos;
+    private long renderNanosInRequest;
+
+    public RequestTiming(String endpoint, SqlTrace sqlTrace, long start) {
+        this.endpoint = endpoint;
+        this.sqlTrace = sqlTrace;
+        this.start = start;
+    }
+
+    public static RequestTiming get(ServletRequest req) {
+        return (RequestTiming) req.getAttribute(ATTRIBUTE);
+    }
+
+    /**
+     * Ends the {@code auth} phase, called by the authentication filter when
+     * it lets the request through. Only the {@code REQUEST} dispatch counts,
+     * some containers (Jetty) run async supporting filters mapped without a
+     * dispatcher on {@code ASYNC} dispatches too.
+     */
+    public static void markServiceStart(ServletRequest req) {
+        RequestTiming timing = get(req);
+        if (timing != null && req.getDispatcherType() == DispatcherType.REQUEST) {
+            timing.serviceStart = System.nanoTime();
+        }
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public void requestDispatchEnded(boolean asyncStarted) {
+        requestEnd = System.nanoTime();
+        renderNanosInRequest = renderNanos;
+        async = asyncStarted;
+    }
+
+    public void renderStarted() {
+        if (renderDepth++ == 0) {
+            renderStart = System.nanoTime();
+            if (async && asyncEnd == 0) {
+                asyncEnd = renderStart;
+            }
+        }
+    }
+
+    public void renderEnded() {
+        if (--renderDepth == 0) {
+            renderNanos += System.nanoTime() - renderStart;
+        }
+    }
+
+    /**
+     * Returns the phases measured up to now in nanoseconds, in the order
+     * they happen.
+     */
+    public Map<String, Long> getPhases() {
+        long now = System.nanoTime();
+        long openRender = renderDepth > 0 ? now - renderStart : 0;
+        Map<String, Long> phases = new LinkedHashMap<>();
+        long authEnd = serviceStart != 0 ? serviceStart : requestEnd != 0 ? requestEnd : now;
+        phases.put("auth", authEnd - start);
+        if (serviceStart != 0) {
+            long serviceEnd = requestEnd != 0 ? requestEnd : now;
+            long renderInRequest = requestEnd != 0 ? renderNanosInRequest
+                    : renderNanos + openRender;
+            phases.put("service", serviceEnd - serviceStart - renderInRequest);
+        }
+        if (async) {
+            phases.put("async", (asyncEnd != 0 ? asyncEnd : now) - requestEnd);
+        }
+        if (sqlTrace != null) {
+            phases.put("db", sqlTrace.getNanos());
+        }
+        phases.put("render", renderNanos + openRender);
+        phases.put("total", now - start);
+        return phases;
+    }
+
+    /**
+     * Formats the phases measured so far as a {@code Server-Timing} value.
+     */
+    public String toServerTiming() {
+        StringBuilder header = new StringBuilder();
+        for (Map.Entry<String, Long> phase : getPhases().entrySet()) {
+            if (header.length() > 0) {
+                header.append(", ");
+            }
+            header.append(phase.getKey()).append(";dur=")
+                    .append(String.format(Locale.ROOT, "%.1f",
+                            phase.getValue() / NANOS_PER_MILLI));
+            if (phase.getKey().equals("db")) {
+                header.append(";desc=\"").append(sqlTrace.getStatementCount())
+                        .append(" statements\"");
+            }
+        }
+        return header.toString();
+    }
+
+    /**
+     * Adds the finished request to the per endpoint figures.
+     */
+    public void finish() {
+        getPhases().forEach((phase, nanos) -> EndpointTimings.get(endpoint, phase).record(nanos));
+    }
+}
@@ -8,21 +8,46 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpFilter;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.servlet.http.HttpSession;
+import taxi.util.AuthTokens;
+import taxi.web.AuthCookie;
+import taxi.web.RequestTiming;
 
+/**
+ * Lets through requests of a logged in driver and the pages that don't need
+ * a login. {@code /metrics} needs a login too, unless
+ * {@code taxi.metrics.public} is {@code true} so that a scraper can read it.
+ */
 public class AuthenticationFilter extends HttpFilter {
     private static final Set<String> ALLOWED_URLS =
-            Collections.unmodifiableSet(Set.of("/login", "/drivers/add"));
+            Collections.unmodifiableSet(Set.of("/login", "/drivers/add", "/static"));
+    private static final String METRICS_URL = "/metrics";
+    private static final boolean PUBLIC_METRICS = Boolean.getBoolean("taxi.metrics.public");
+    private static final String API_PREFIX = "/api/";
 
     @Override
     public void doFilter(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
             throws IOException, ServletException {
-        HttpSession session = req.getSession();
-        Long userId = (Long) session.getAttribute("user_id");
-        if (userId != null || ALLOWED_URLS.contains(req.getServletPath())) {
+        String token = AuthCookie.read(req);
+        Long userId = AuthTokens.verify(token);
+        if (userId != null) {
+            req.setAttribute(AuthCookie.USER_ID_ATTRIBUTE, userId);
+            if (AuthTokens.isDueForRenewal(token)) {
+                AuthCookie.write(req, res, userId);
+            }
+        }
+        if (userId != null || isAllowed(req.getServletPath())) {
+            RequestTiming.markServiceStart(req);
             chain.doFilter(req, res);
             return;
         }
+        if (req.getServletPath().startsWith(API_PREFIX)) {
+            res.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
         res.sendRedirect("/login");
     }
+
+    private static boolean isAllowed(String path) {
+        return ALLOWED_URLS.contains(path) || PUBLIC_METRICS && path.equals(METRICS_URL);
+    }
 }
@@ -0,0 +1,301 @@
+package taxi.web.filter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpFilter;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Compresses text responses with gzip or deflate, whichever the client
+ * accepts. The first {@code taxi.compression.minBytes} bytes (default 1024)
+ * are held back; a response that ends before that goes out as is, a longer
+ * one is compressed while it is being written, flushes included.
+ */
+public class CompressionFilter extends HttpFilter {
+    private static final int MIN_BYTES = Integer.getInteger("taxi.compression.minBytes", 1024);
+    private static final int BUFFER_SIZE = 8192;
+    private static final String GZIP = "gzip";
+    private static final String DEFLATE = "deflate";
+    private static final String PENDING_ATTRIBUTE = CompressionFilter.class.getName();
+    private static final Set<String> COMPRESSIBLE_TYPES = Set.of("text/html", "text/css",
+            "text/plain", "text/csv", "text/javascript", "application/javascript",
+            "application/json", "application/x-ndjson", "image/svg+xml");
+
+    @Override
+    public void doFilter(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+            throws IOException, ServletException {
+        if (req.getDispatcherType() == DispatcherType.ASYNC) {
+            chain.doFilter(req, res);
+            finishUnlessAsync(req, (CompressingResponse) req.getAttribute(PENDING_ATTRIBUTE));
+            return;
+        }
+        res.addHeader("Vary", "Accept-Encoding");
+        String encoding = chooseEncoding(req.getHeader("Accept-Encoding"));
+        if (encoding == null) {
+            chain.doFilter(req, res);
+            return;
+        }
+        CompressingResponse compressingResponse = new CompressingResponse(res, encoding);
+        req.setAttribute(PENDING_ATTRIBUTE, compressingResponse);
+        chain.doFilter(req, compressingResponse);
+        finishUnlessAsync(req, compressingResponse);
+    }
+
+    /**
+     * An async request is finished by the filter run of the dispatch that
+     * renders it, which has the {@code ASYNC} dispatcher type.
+     */
+    private static void finishUnlessAsync(HttpServletRequest req,
+                                          CompressingResponse compressingResponse)
+            throws IOException {
+        if (compressingResponse != null && !req.isAsyncStarted()) {
+            req.removeAttribute(PENDING_ATTRIBUTE);
+            compressingResponse.finish();
+        }
+    }
+
+    static String chooseEncoding(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        boolean deflate = false;
+        boolean any = false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim().toLowerCase(Locale.ROOT);
+            if (isRefused(parameters)) {
+                continue;
+            }
+            if (name.equals(GZIP)) {
+                return GZIP;
+            }
+            deflate |= name.equals(DEFLATE);
+            any |= name.equals("*");
+        }
+        return deflate ? DEFLATE : any ? GZIP : null;
+    }
+
+    private static boolean isRefused(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) <= 0;
+                } catch (NumberFormatException e) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        int parameters = contentType.indexOf(';');
+        String mimeType = parameters < 0 ? contentType : contentType.substring(0, parameters);
+        return COMPRESSIBLE_TYPES.contains(mimeType.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Buffers the start of the body until it knows whether to compress it,
+     * then writes through to the wrapped response.
+     */
+    private static class CompressingResponse extends HttpServletResponseWrapper {
+        private final String encoding;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream(MIN_BYTES);
+        private OutputStream target;
+        private DeflaterOutputStream compressor;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+        private long contentLength = -1;
+        private boolean bypassed;
+
+        CompressingResponse(HttpServletResponse res, String encoding) {
+            super(res);
+            this.encoding = encoding;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called");
+            }
+            return getStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                if (outputStream != null) {
+                    throw new IllegalStateException("getOutputStream() has already been called");
+                }
+                writer = new PrintWriter(new OutputStreamWriter(getStream(),
+                        getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            setContentLengthLong(len);
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            if (target == null) {
+                contentLength = len;
+            } else if (compressor == null) {
+                super.setContentLengthLong(len);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (target != null) {
+                target.flush();
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            discardBuffered();
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            discardBuffered();
+            contentLength = -1;
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            bypassed = true;
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            bypassed = true;
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            bypassed = true;
+            super.sendRedirect(location);
+        }
+
+        void finish() throws IOException {
+            if (bypassed || outputStream == null) {
+                return;
+            }
+            if (writer != null) {
+                writer.flush();
+            }
+            if (target == null) {
+                start(false);
+            }
+            if (compressor != null) {
+                compressor.close();
+            }
+        }
+
+        private ServletOutputStream getStream() {
+            if (outputStream == null) {
+                outputStream = new CompressingStream();
+            }
+            return outputStream;
+        }
+
+        private void discardBuffered() {
+            if (buffer != null) {
+                buffer.reset();
+            }
+        }
+
+        private void write(byte[] bytes, int offset, int length) throws IOException {
+            if (target == null && !isCompressible(getContentType())) {
+                start(false);
+            }
+            if (target != null) {
+                target.write(bytes, offset, length);
+                return;
+            }
+            buffer.write(bytes, offset, length);
+            if (buffer.size() >= MIN_BYTES) {
+                start(true);
+            }
+        }
+
+        private void start(boolean compress) throws IOException {
+            int status = getStatus();
+            if (compress && status != HttpServletResponse.SC_NO_CONTENT
+                    && status != HttpServletResponse.SC_NOT_MODIFIED
+                    && !containsHeader("Content-Encoding")) {
+                setHeader("Content-Encoding", encoding);
+                compressor = encoding.equals(GZIP)
+                        ? new GZIPOutputStream(super.getOutputStream(), BUFFER_SIZE, true)
+                        : new DeflaterOutputStream(super.getOutputStream(), true);
+                target = compressor;
+            } else {
+                if (contentLength >= 0) {
+                    super.setContentLengthLong(contentLength);
+                }
+                target = super.getOutputStream();
+            }
+            buffer.writeTo(target);
+            buffer = null;
+        }
+
+        private class CompressingStream extends ServletOutputStream {
+            @Override
+            public void write(int b) throws IOException {
+                CompressingResponse.this.write(new byte[] {(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                CompressingResponse.this.write(bytes, offset, length);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                if (target != null) {
+                    target.flush();
+                }
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                throw new IllegalStateException("Non-blocking output can't be compressed");
+            }
+        }
+    }
+}
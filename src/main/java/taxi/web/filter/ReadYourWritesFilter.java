@@ -0,0 +1,114 @@
+package taxi.web.filter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpFilter;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import taxi.util.ReadYourWrites;
+
+/**
+ * Carries the time of the client's last write between requests in a cookie,
+ * so reads right after a write go to the primary instead of a lagging replica.
+ */
+public class ReadYourWritesFilter extends HttpFilter {
+    private static final String COOKIE_NAME = "taxi_lw";
+
+    @Override
+    public void doFilter(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+            throws IOException, ServletException {
+        Long lastWrite = readLastWrite(req);
+        ReadYourWrites.restore(lastWrite);
+        try {
+            chain.doFilter(req, new LastWriteResponse(req, res, lastWrite));
+        } finally {
+            ReadYourWrites.clear();
+        }
+    }
+
+    private static Long readLastWrite(HttpServletRequest req) {
+        Cookie[] cookies = req.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.valueOf(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds the cookie at the first point the response can be committed,
+     * headers can't be changed afterwards.
+     */
+    private static class LastWriteResponse extends HttpServletResponseWrapper {
+        private final HttpServletRequest req;
+        private Long lastWriteSent;
+
+        LastWriteResponse(HttpServletRequest req, HttpServletResponse res, Long lastWrite) {
+            super(res);
+            this.req = req;
+            this.lastWriteSent = lastWrite;
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addLastWriteCookie();
+            super.sendRedirect(location);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addLastWriteCookie();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addLastWriteCookie();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addLastWriteCookie();
+            return super.getWriter();
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addLastWriteCookie();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addLastWriteCookie();
+            super.flushBuffer();
+        }
+
+        private void addLastWriteCookie() {
+            Long lastWrite = ReadYourWrites.getLastWriteMillis();
+            if (lastWrite == null || lastWrite.equals(lastWriteSent) || isCommitted()) {
+                return;
+            }
+            Cookie cookie = new Cookie(COOKIE_NAME, String.valueOf(lastWrite));
+            cookie.setPath(req.getContextPath().isEmpty() ? "/" : req.getContextPath());
+            cookie.setMaxAge((int) ((ReadYourWrites.getWindowMillis() + 999) / 1000));
+            cookie.setHttpOnly(true);
+            addCookie(cookie);
+            lastWriteSent = lastWrite;
+        }
+    }
+}
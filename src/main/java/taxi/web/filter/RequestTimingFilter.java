@@ -0,0 +1,160 @@
+package taxi.web.filter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpFilter;
+import javax.servlet.http.HttpServletMapping;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import taxi.util.SqlTrace;
+import taxi.web.RequestTiming;
+
+/**
+ * Times each request by phase, see {@link RequestTiming}, and reports the
+ * phases in a {@code Server-Timing} header and per servlet mapping on
+ * {@code /metrics}. Mapped for forwards and async dispatches too, which is
+ * where pages are rendered. The header is added at the last moment before
+ * the response is committed, so a phase still running then, usually
+ * {@code render}, is reported with the time it took so far.
+ * {@code -Dtaxi.timing.header=false} keeps the header out of responses.
+ */
+public class RequestTimingFilter extends HttpFilter {
+    private static final String HEADER = "Server-Timing";
+    private static final boolean HEADER_ENABLED = Boolean.parseBoolean(
+            System.getProperty("taxi.timing.header", "true"));
+
+    @Override
+    public void doFilter(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+            throws IOException, ServletException {
+        RequestTiming timing = RequestTiming.get(req);
+        if (timing == null || req.getDispatcherType() == DispatcherType.REQUEST) {
+            timeRequest(req, res, chain);
+            return;
+        }
+        timing.renderStarted();
+        try {
+            chain.doFilter(req, res);
+        } finally {
+            timing.renderEnded();
+        }
+        if (req.getDispatcherType() == DispatcherType.ASYNC && res instanceof TimingResponse) {
+            ((TimingResponse) res).addTimingHeader();
+        }
+    }
+
+    private void timeRequest(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+            throws IOException, ServletException {
+        RequestTiming timing = new RequestTiming(getEndpoint(req), SqlTrace.current(),
+                System.nanoTime());
+        req.setAttribute(RequestTiming.ATTRIBUTE, timing);
+        TimingResponse response = new TimingResponse(res, timing);
+        try {
+            chain.doFilter(req, response);
+        } finally {
+            timing.requestDispatchEnded(req.isAsyncStarted());
+        }
+        if (req.isAsyncStarted()) {
+            req.getAsyncContext().addListener(new FinishListener(timing));
+        } else {
+            response.addTimingHeader();
+            timing.finish();
+        }
+    }
+
+    private static String getEndpoint(HttpServletRequest req) {
+        HttpServletMapping mapping = req.getHttpServletMapping();
+        return mapping == null || mapping.getPattern().isEmpty()
+                ? req.getServletPath() : mapping.getPattern();
+    }
+
+    private static class FinishListener implements AsyncListener {
+        private final RequestTiming timing;
+
+        FinishListener(RequestTiming timing) {
+            this.timing = timing;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            timing.finish();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    /**
+     * Adds the header at the first point the response can be committed,
+     * headers can't be changed afterwards.
+     */
+    private static class TimingResponse extends HttpServletResponseWrapper {
+        private final RequestTiming timing;
+        private boolean headerAdded;
+
+        TimingResponse(HttpServletResponse res, RequestTiming timing) {
+            super(res);
+            this.timing = timing;
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addTimingHeader();
+            super.sendRedirect(location);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addTimingHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addTimingHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addTimingHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addTimingHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addTimingHeader();
+            super.flushBuffer();
+        }
+
+        void addTimingHeader() {
+            if (!HEADER_ENABLED || headerAdded || isCommitted()) {
+                return;
+            }
+            headerAdded = true;
+            setHeader(HEADER, timing.toServerTiming());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package taxi.web.filter;
+
+import java.io.IOException;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpFilter;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import taxi.util.SqlTrace;
+
+/**
+ * Gives every request a {@link SqlTrace}, kept in a request attribute so the
+ * async dispatch back from the DAO executor counts into the same trace, and
+ * finishes it once the response is complete.
+ */
+public class SqlTraceFilter extends HttpFilter {
+    public static final String TRACE_ATTRIBUTE = SqlTrace.class.getName();
+
+    @Override
+    public void doFilter(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+            throws IOException, ServletException {
+        SqlTrace trace = (SqlTrace) req.getAttribute(TRACE_ATTRIBUTE);
+        boolean first = trace == null || req.getDispatcherType() == DispatcherType.REQUEST;
+        if (first) {
+            trace = new SqlTrace();
+            req.setAttribute(TRACE_ATTRIBUTE, trace);
+        }
+        SqlTrace.bind(trace);
+        try {
+            chain.doFilter(req, res);
+        } finally {
+            SqlTrace.bind(null);
+        }
+        if (!first) {
+            return;
+        }
+        String request = req.getMethod() + " " + req.getRequestURI();
+        if (req.isAsyncStarted()) {
+            req.getAsyncContext().addListener(new FinishListener(trace, request));
+        } else {
+            trace.finish(request);
+        }
+    }
+
+    private static class FinishListener implements AsyncListener {
+        private final SqlTrace trace;
+        private final String request;
+
+        FinishListener(SqlTrace trace, String request) {
+            this.trace = trace;
+            this.request = request;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            trace.finish(request);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
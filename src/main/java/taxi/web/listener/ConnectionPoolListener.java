@@ -0,0 +1,19 @@
+package taxi.web.listener;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import taxi.util.ConnectionUtil;
+import taxi.util.DaoExecutor;
+
+public class ConnectionPoolListener implements ServletContextListener {
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        DaoExecutor.configure(sce.getServletContext().getInitParameter("taxi.threads"));
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        DaoExecutor.shutdown();
+        ConnectionUtil.shutdown();
+    }
+}
@@ -0,0 +1,16 @@
+package taxi.web.listener;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import taxi.lib.Injector;
+
+/**
+ * Validates the component graph and creates every component at deploy time,
+ * so a wiring error fails the deployment instead of the first request.
+ */
+public class InjectorStartupListener implements ServletContextListener {
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        Injector.getInstance("taxi").initializeAll();
+    }
+}
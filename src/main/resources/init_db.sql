@@ -61,4 +61,13 @@ CREATE TABLE `cars_drivers`  (
 ALTER TABLE `drivers` ADD COLUMN `login` VARCHAR(255) NOT NULL UNIQUE,
 ADD COLUMN `password` VARCHAR(255) NOT NULL;
 
+-- ----------------------------
+-- Indexes for the list pages, which seek and order on (sort column, id) among rows not deleted
+-- ----------------------------
+CREATE INDEX `cars_is_deleted_model` ON `cars` (`is_deleted`, `model`, `id`);
+CREATE INDEX `drivers_is_deleted_name` ON `drivers` (`is_deleted`, `name`, `id`);
+CREATE INDEX `drivers_is_deleted_login` ON `drivers` (`is_deleted`, `login`, `id`);
+CREATE INDEX `manufacturers_is_deleted_name` ON `manufacturers` (`is_deleted`, `name`, `id`);
+CREATE INDEX `manufacturers_is_deleted_country` ON `manufacturers` (`is_deleted`, `country`, `id`);
+
 SET FOREIGN_KEY_CHECKS = 1;
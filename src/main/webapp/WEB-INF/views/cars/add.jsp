@@ -1,11 +1,10 @@
 <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
-<%@ page contentType="text/html;charset=UTF-8" language="java" %>
-<style>
-    <%@include file='/WEB-INF/views/css/table_dark.css' %>
-</style>
+<%@ page contentType="text/html;charset=UTF-8" language="java" session="false" %>
 <html>
 <head>
     <title>Add car</title>
+    <link rel="stylesheet"
+          href="${pageContext.request.contextPath}${assets['css/table_dark.css']}">
 </head>
 <body>
 <%@include file="/WEB-INF/views/header.jsp"%>
@@ -1,11 +1,10 @@
 <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
-<%@ page contentType="text/html;charset=UTF-8" language="java" %>
-<style>
-    <%@include file='/WEB-INF/views/css/table_dark.css' %>
-</style>
+<%@ page contentType="text/html;charset=UTF-8" language="java" session="false" %>
 <html>
 <head>
     <title>All cars</title>
+    <link rel="stylesheet"
+          href="${pageContext.request.contextPath}${assets['css/table_dark.css']}">
 </head>
 <body>
 <%@include file="/WEB-INF/views/header.jsp"%>
@@ -44,5 +43,15 @@
         </tr>
     </c:forEach>
 </table>
+<c:if test="${page != null}">
+<p class="table_dark">
+    <c:if test="${page.previousCursor != null}">
+        <a href="${pageContext.request.contextPath}/cars?before=${page.previousCursor}&size=${pageRequest.size}&sort=${pageRequest.sort}">Previous</a>
+    </c:if>
+    <c:if test="${page.nextCursor != null}">
+        <a href="${pageContext.request.contextPath}/cars?after=${page.nextCursor}&size=${pageRequest.size}&sort=${pageRequest.sort}">Next</a>
+    </c:if>
+</p>
+</c:if>
 </body>
 </html>
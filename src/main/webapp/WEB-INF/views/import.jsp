@@ -0,0 +1,43 @@
+<%@ page contentType="text/html;charset=UTF-8" language="java" session="false" %>
+<html>
+<head>
+    <title>Import</title>
+    <link rel="stylesheet"
+          href="${pageContext.request.contextPath}${assets['css/table_dark.css']}">
+</head>
+<body>
+<%@include file="/WEB-INF/views/header.jsp"%>
+<form method="post" id="import" enctype="multipart/form-data"
+      action="${pageContext.request.contextPath}/import"></form>
+<h1 class="table_dark">Bulk import:</h1>
+<table border="1" class="table_dark">
+    <tr>
+        <th>Type</th>
+        <th>Format</th>
+        <th>File</th>
+        <th>Import</th>
+    </tr>
+    <tr>
+        <td>
+            <select name="type" form="import">
+                <option value="drivers">drivers</option>
+                <option value="manufacturers">manufacturers</option>
+                <option value="cars">cars</option>
+            </select>
+        </td>
+        <td>
+            <select name="format" form="import">
+                <option value="csv">csv</option>
+                <option value="ndjson">ndjson</option>
+            </select>
+        </td>
+        <td>
+            <input type="file" name="file" form="import" required>
+        </td>
+        <td>
+            <input type="submit" name="import" form="import">
+        </td>
+    </tr>
+</table>
+</body>
+</html>
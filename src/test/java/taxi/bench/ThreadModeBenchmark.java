@@ -0,0 +1,105 @@
+package taxi.bench;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import taxi.util.DaoExecutor;
+
+/**
+ * Compares the platform and virtual thread modes of {@link DaoExecutor}
+ * without a database: every request holds one of the pooled "connections"
+ * for a simulated JDBC round trip. Run with
+ * {@code java -cp target/classes:target/test-classes taxi.bench.ThreadModeBenchmark
+ * [requests] [inFlight] [connections] [queueSize] [dbMillis]}
+ * on JDK 21 to see both modes.
+ */
+public class ThreadModeBenchmark {
+    public static void main(String[] args) throws InterruptedException {
+        int requests = argument(args, 0, 20_000);
+        int inFlight = argument(args, 1, 200);
+        int connections = argument(args, 2, 10);
+        int queueSize = argument(args, 3, 200);
+        int dbMillis = argument(args, 4, 5);
+        System.out.printf("%d requests, %d in flight, %d connections, queue %d, %d ms per query%n",
+                requests, inFlight, connections, queueSize, dbMillis);
+        for (DaoExecutor.Mode mode : DaoExecutor.Mode.values()) {
+            if (mode == DaoExecutor.Mode.VIRTUAL && !DaoExecutor.isVirtualThreadsSupported()) {
+                System.out.println("VIRTUAL: skipped, needs JDK 21, running on "
+                        + Runtime.version());
+                continue;
+            }
+            run(mode, requests / 10, inFlight, connections, queueSize, dbMillis, false);
+            run(mode, requests, inFlight, connections, queueSize, dbMillis, true);
+        }
+    }
+
+    private static void run(DaoExecutor.Mode mode, int requests, int inFlight, int connections,
+                            int queueSize, int dbMillis, boolean report)
+            throws InterruptedException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        ExecutorService executor = DaoExecutor.create(mode, connections, queueSize);
+        Semaphore clients = new Semaphore(inFlight);
+        CountDownLatch done = new CountDownLatch(requests);
+        AtomicInteger rejected = new AtomicInteger();
+        long[] latencies = new long[requests];
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            clients.acquire();
+            int request = i;
+            long submitted = System.nanoTime();
+            try {
+                executor.execute(() -> {
+                    simulateQuery(dbMillis);
+                    latencies[request] = System.nanoTime() - submitted;
+                    clients.release();
+                    done.countDown();
+                });
+            } catch (RejectedExecutionException e) {
+                rejected.incrementAndGet();
+                latencies[request] = -1;
+                clients.release();
+                done.countDown();
+            }
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        if (!report) {
+            return;
+        }
+        long[] served = Arrays.stream(latencies).filter(latency -> latency >= 0).sorted()
+                .toArray();
+        System.out.printf("%-8s %8.0f req/s  p50 %6.1f ms  p99 %6.1f ms  rejected %5d"
+                        + "  peak platform threads %d%n",
+                mode, served.length * 1e9 / elapsed, percentile(served, 0.50),
+                percentile(served, 0.99), rejected.get(), threads.getPeakThreadCount());
+    }
+
+    private static void simulateQuery(int dbMillis) {
+        try {
+            Thread.sleep(dbMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static int argument(String[] args, int index, int defaultValue) {
+        return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+    }
+}
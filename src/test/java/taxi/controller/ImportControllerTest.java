@@ -0,0 +1,55 @@
+package taxi.controller;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ImportControllerTest {
+    private final ImportController controller = new ImportController();
+    private HttpServletRequest req;
+    private HttpServletResponse resp;
+
+    @BeforeEach
+    void setUp() {
+        req = mock(HttpServletRequest.class);
+        resp = mock(HttpServletResponse.class);
+    }
+
+    @Test
+    void doPost_missingType_badRequest() throws ServletException, IOException {
+        controller.doPost(req, resp);
+        verify(resp).sendError(eq(HttpServletResponse.SC_BAD_REQUEST), anyString());
+        verify(req, never()).getInputStream();
+    }
+
+    @Test
+    void doPost_unknownTypeOrFormat_badRequest() throws ServletException, IOException {
+        when(req.getParameter("type")).thenReturn("trucks");
+        controller.doPost(req, resp);
+        when(req.getParameter("type")).thenReturn("drivers");
+        when(req.getParameter("format")).thenReturn("xml");
+        controller.doPost(req, resp);
+        verify(resp, times(2))
+                .sendError(eq(HttpServletResponse.SC_BAD_REQUEST), anyString());
+        verify(req, never()).getInputStream();
+    }
+
+    @Test
+    void doPost_missingFilePart_badRequest() throws ServletException, IOException {
+        when(req.getParameter("type")).thenReturn("drivers");
+        when(req.getContentType()).thenReturn("multipart/form-data; boundary=x");
+        controller.doPost(req, resp);
+        verify(resp).sendError(HttpServletResponse.SC_BAD_REQUEST, "Part file is missing");
+    }
+}
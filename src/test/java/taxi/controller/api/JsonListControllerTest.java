@@ -0,0 +1,123 @@
+package taxi.controller.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.servlet.DispatcherType;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import taxi.model.Manufacturer;
+import taxi.model.ModelsGenerator;
+import taxi.model.Page;
+import taxi.model.PageRequest;
+import taxi.util.TableVersions;
+
+class JsonListControllerTest {
+    private HttpServletRequest req;
+    private HttpServletResponse resp;
+    private ByteArrayOutputStream body;
+    private ManufacturersController controller;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        req = mock(HttpServletRequest.class);
+        resp = mock(HttpServletResponse.class);
+        body = new ByteArrayOutputStream();
+        when(resp.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+        });
+        Manufacturer ford = ModelsGenerator.generatePersistentManufacturer(1L,
+                ModelsGenerator.generateManufacturer("USA", "Ford \"Motor\""));
+        Manufacturer kia = ModelsGenerator.generatePersistentManufacturer(2L,
+                ModelsGenerator.generateManufacturer("Korea", "Kia"));
+        controller = new ManufacturersController();
+        when(req.getDispatcherType()).thenReturn(DispatcherType.ASYNC);
+        when(req.getAttribute("page")).thenReturn(new Page<>(List.of(ford, kia), null, 2L));
+    }
+
+    @Test
+    void doGet_allFields_Ok() throws IOException {
+        controller.doGet(req, resp);
+        verify(resp).setContentType("application/json");
+        assertEquals("{\"items\":["
+                + "{\"id\":1,\"name\":\"Ford \\\"Motor\\\"\",\"country\":\"USA\"},"
+                + "{\"id\":2,\"name\":\"Kia\",\"country\":\"Korea\"}],"
+                + "\"previousCursor\":null,\"nextCursor\":2,"
+                + "\"hasPrevious\":false,\"hasNext\":true}",
+                body.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void doGet_selectedFields_Ok() throws IOException {
+        when(req.getParameter("fields")).thenReturn("country, id");
+        controller.doGet(req, resp);
+        assertEquals("{\"items\":[{\"id\":1,\"country\":\"USA\"},{\"id\":2,\"country\":\"Korea\"}],"
+                + "\"previousCursor\":null,\"nextCursor\":2,"
+                + "\"hasPrevious\":false,\"hasNext\":true}",
+                body.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void doGet_unknownField_badRequest() throws IOException {
+        when(req.getParameter("fields")).thenReturn("id,password");
+        controller.doGet(req, resp);
+        verify(resp).sendError(eq(HttpServletResponse.SC_BAD_REQUEST), anyString());
+        assertEquals(0, body.size());
+    }
+
+    @Test
+    void doGet_malformedCursor_badRequest() throws IOException {
+        when(req.getParameter("after")).thenReturn("abc");
+        controller.doGet(req, resp);
+        verify(resp).sendError(eq(HttpServletResponse.SC_BAD_REQUEST), anyString());
+        assertEquals(0, body.size());
+    }
+
+    private static class ManufacturersController extends JsonListController<Manufacturer> {
+        @Override
+        protected Page<Manufacturer> getPage(PageRequest pageRequest) {
+            throw new UnsupportedOperationException("Pages are passed as request attribute");
+        }
+
+        @Override
+        protected TableVersions.Table[] getTables() {
+            return new TableVersions.Table[] {TableVersions.Table.MANUFACTURERS};
+        }
+
+        @Override
+        protected Map<String, FieldWriter<Manufacturer>> getFieldWriters() {
+            Map<String, FieldWriter<Manufacturer>> fieldWriters = new LinkedHashMap<>();
+            fieldWriters.put("id", (json, item) -> writeLongField(json, "id", item.getId()));
+            fieldWriters.put("name", (json, item) -> json.writeStringField("name", item.getName()));
+            fieldWriters.put("country", (json, item) ->
+                    json.writeStringField("country", item.getCountry()));
+            return fieldWriters;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package taxi.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import taxi.exception.DataProcessingException;
+import taxi.model.Manufacturer;
+import taxi.util.ConnectionUtil;
+
+class BatchInsertTest {
+    private static final String COUNTRY = "BatchInsertTest";
+    // rows named "skip" select nothing, so they get no generated key
+    private static final String QUERY = "INSERT INTO manufacturers (name, country) "
+            + "SELECT ?, ? FROM DUAL WHERE ? <> 'skip'";
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(
+                        "DELETE FROM manufacturers WHERE country = ?")) {
+            statement.setString(1, COUNTRY);
+            statement.executeUpdate();
+        }
+    }
+
+    @Test
+    void insert_keyPerRow_Ok() {
+        List<Manufacturer> manufacturers = List.of(new Manufacturer("first", COUNTRY),
+                new Manufacturer("second", COUNTRY));
+        BatchInsert.inChunks(manufacturers, chunk -> BatchInsert.insert(QUERY, chunk,
+                BatchInsertTest::bind, Manufacturer::setId));
+        manufacturers.forEach(manufacturer -> assertNotNull(manufacturer.getId()));
+        assertEquals(2, count());
+    }
+
+    @Test
+    void insert_missingKeys_notOk() {
+        List<Manufacturer> manufacturers = List.of(new Manufacturer("first", COUNTRY),
+                new Manufacturer("skip", COUNTRY), new Manufacturer("third", COUNTRY));
+        DataProcessingException exception = assertThrows(DataProcessingException.class,
+                () -> BatchInsert.inChunks(manufacturers, chunk -> BatchInsert.insert(QUERY,
+                        chunk, BatchInsertTest::bind, Manufacturer::setId)));
+        assertEquals("Expected 3 generated keys but got 2 with " + QUERY,
+                exception.getMessage());
+        assertEquals(0, count());
+    }
+
+    private static void bind(PreparedStatement statement, Manufacturer manufacturer)
+            throws SQLException {
+        statement.setString(1, manufacturer.getName());
+        statement.setString(2, manufacturer.getCountry());
+        statement.setString(3, manufacturer.getName());
+    }
+
+    private static int count() {
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(
+                        "SELECT COUNT(*) FROM manufacturers WHERE country = ?")) {
+            statement.setString(1, COUNTRY);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getInt(1);
+            }
+        } catch (SQLException e) {
+            throw new DataProcessingException("Can't count manufacturers", e);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package taxi.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import taxi.model.Manufacturer;
+import taxi.model.ModelsGenerator;
+import taxi.util.TransactionManager;
+
+class CachingManufacturerDaoTest {
+    private static final Long FIRST_ID = 1L;
+    private static final Long SECOND_ID = 2L;
+    private static final Duration TTL = Duration.ofSeconds(60);
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicBoolean settled = new AtomicBoolean(true);
+    private ManufacturerDao manufacturerDao;
+    private CachingManufacturerDao cachingDao;
+
+    @BeforeEach
+    void setUp() {
+        manufacturerDao = Mockito.mock(ManufacturerDao.class);
+        Mockito.when(manufacturerDao.get(FIRST_ID)).thenReturn(Optional.of(ModelsGenerator
+                .generatePersistentManufacturer(FIRST_ID,
+                        ModelsGenerator.generateManufacturer("USA", "Ford"))));
+        Mockito.when(manufacturerDao.get(SECOND_ID)).thenReturn(Optional.of(ModelsGenerator
+                .generatePersistentManufacturer(SECOND_ID,
+                        ModelsGenerator.generateManufacturer("Japan", "Toyota"))));
+        cachingDao = new CachingManufacturerDao(manufacturerDao, 1, TTL, nanos::get,
+                settled::get);
+    }
+
+    @Test
+    void get_readThrough_Ok() {
+        Manufacturer first = cachingDao.get(FIRST_ID).get();
+        Manufacturer second = cachingDao.get(FIRST_ID).get();
+        assertEquals("Ford", second.getName());
+        assertNotSame(first, second);
+        Mockito.verify(manufacturerDao, Mockito.times(1)).get(FIRST_ID);
+        assertEquals(1, cachingDao.getHitCount());
+        assertEquals(1, cachingDao.getMissCount());
+    }
+
+    @Test
+    void get_absent_notCached_Ok() {
+        Mockito.when(manufacturerDao.get(3L)).thenReturn(Optional.empty());
+        assertFalse(cachingDao.get(3L).isPresent());
+        assertFalse(cachingDao.get(3L).isPresent());
+        Mockito.verify(manufacturerDao, Mockito.times(2)).get(3L);
+    }
+
+    @Test
+    void get_expired_Ok() {
+        cachingDao.get(FIRST_ID);
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(TTL.getSeconds() + 1));
+        cachingDao.get(FIRST_ID);
+        Mockito.verify(manufacturerDao, Mockito.times(2)).get(FIRST_ID);
+    }
+
+    @Test
+    void get_sizeEviction_Ok() {
+        cachingDao.get(FIRST_ID);
+        cachingDao.get(SECOND_ID);
+        assertEquals(1, cachingDao.getSize());
+        assertEquals(1, cachingDao.getEvictionCount());
+    }
+
+    @Test
+    void update_invalidates_Ok() {
+        Manufacturer manufacturer = cachingDao.get(FIRST_ID).get();
+        cachingDao.update(manufacturer);
+        cachingDao.get(FIRST_ID);
+        Mockito.verify(manufacturerDao, Mockito.times(2)).get(FIRST_ID);
+    }
+
+    @Test
+    void delete_invalidates_Ok() {
+        cachingDao.get(FIRST_ID);
+        cachingDao.delete(FIRST_ID);
+        cachingDao.get(FIRST_ID);
+        Mockito.verify(manufacturerDao, Mockito.times(2)).get(FIRST_ID);
+    }
+
+    @Test
+    void update_inTransaction_invalidatesAfterCommit_Ok() {
+        Manufacturer manufacturer = cachingDao.get(FIRST_ID).get();
+        TransactionManager.runInTransaction(() -> {
+            cachingDao.update(manufacturer);
+            assertEquals(1, cachingDao.getSize());
+        });
+        assertEquals(0, cachingDao.getSize());
+    }
+
+    @Test
+    void delete_rolledBack_keepsEntry_Ok() {
+        cachingDao.get(FIRST_ID);
+        assertThrows(IllegalStateException.class, () -> TransactionManager.runInTransaction(() -> {
+            cachingDao.delete(FIRST_ID);
+            throw new IllegalStateException("failed");
+        }));
+        cachingDao.get(FIRST_ID);
+        Mockito.verify(manufacturerDao, Mockito.times(1)).get(FIRST_ID);
+    }
+
+    @Test
+    void get_replicaMayLag_missNotCached_Ok() {
+        cachingDao.get(FIRST_ID);
+        settled.set(false);
+        cachingDao.update(cachingDao.get(FIRST_ID).get());
+        cachingDao.get(FIRST_ID);
+        cachingDao.get(FIRST_ID);
+        assertEquals(0, cachingDao.getSize());
+        Mockito.verify(manufacturerDao, Mockito.times(3)).get(FIRST_ID);
+        settled.set(true);
+        cachingDao.get(FIRST_ID);
+        cachingDao.get(FIRST_ID);
+        Mockito.verify(manufacturerDao, Mockito.times(4)).get(FIRST_ID);
+    }
+}
@@ -0,0 +1,64 @@
+package taxi.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import taxi.exception.DataProcessingException;
+import taxi.model.Car;
+import taxi.model.Driver;
+import taxi.model.Manufacturer;
+import taxi.model.ModelsGenerator;
+import taxi.util.ConnectionUtil;
+
+class CarDaoImplTest {
+    private final CarDao carDao = new CarDaoImpl();
+    private Manufacturer manufacturer;
+    private Driver driver;
+    private Car car;
+
+    @BeforeEach
+    void setUp() {
+        manufacturer = new ManufacturerDaoImpl().create(
+                ModelsGenerator.generateManufacturer("Japan", "CarDaoImplTest"));
+        driver = new DriverDaoImpl().create(ModelsGenerator.generateDriver(
+                "car-dao-test", "CarDaoImplTest", "password", "CarDaoImplTest"));
+        car = carDao.create(ModelsGenerator.generateCar("CarDaoImplTest", manufacturer));
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Connection connection = ConnectionUtil.getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM cars_drivers WHERE car_id = " + car.getId());
+            statement.execute("DELETE FROM cars WHERE id = " + car.getId());
+            statement.execute("DELETE FROM drivers WHERE id = " + driver.getId());
+            statement.execute("DELETE FROM manufacturers WHERE id = " + manufacturer.getId());
+        }
+    }
+
+    @Test
+    void addDriver_alreadyLinked_false() {
+        assertTrue(carDao.addDriver(car.getId(), driver.getId()));
+        assertFalse(carDao.addDriver(car.getId(), driver.getId()));
+        assertEquals(1, carDao.getAllByDriver(driver.getId()).size());
+        assertTrue(carDao.removeDriver(car.getId(), driver.getId()));
+        assertFalse(carDao.removeDriver(car.getId(), driver.getId()));
+    }
+
+    @Test
+    void addDriver_missingDriver_notOk() {
+        Long missingId = driver.getId() + 1_000_000;
+        assertThrows(DataProcessingException.class, () -> carDao.addDriver(car.getId(), missingId));
+        assertThrows(DataProcessingException.class,
+                () -> carDao.addDriver(car.getId() + 1_000_000, driver.getId()));
+        assertEquals(0, carDao.getAllByDriver(driver.getId()).size());
+    }
+}
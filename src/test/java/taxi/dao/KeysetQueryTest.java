@@ -0,0 +1,82 @@
+package taxi.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import taxi.exception.InvalidPageRequestException;
+import taxi.model.Page;
+import taxi.model.PageRequest;
+
+class KeysetQueryTest {
+    private static final Set<String> SORT_COLUMNS = Set.of("name");
+
+    @Test
+    void firstPage_Ok() throws SQLException {
+        KeysetQuery keyset = new KeysetQuery("drivers", "d", SORT_COLUMNS,
+                PageRequest.first(2));
+        assertEquals("TRUE", keyset.condition());
+        assertEquals(" ORDER BY d.id", keyset.orderBy());
+        PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+        assertEquals(2, keyset.bind(statement, 1));
+        Mockito.verify(statement).setInt(1, 3);
+        Page<Long> page = keyset.toPage(ids(1L, 2L, 3L), Function.identity());
+        assertEquals(List.of(1L, 2L), page.getItems());
+        assertNull(page.getPreviousCursor());
+        assertEquals(2L, page.getNextCursor());
+    }
+
+    @Test
+    void nextPageSortedByColumn_Ok() throws SQLException {
+        KeysetQuery keyset = new KeysetQuery("drivers", "d", SORT_COLUMNS,
+                new PageRequest(7L, null, 2, "name"));
+        assertEquals("(d.name > (SELECT k.name FROM drivers k WHERE k.id = ?)"
+                + " OR (d.name = (SELECT k.name FROM drivers k WHERE k.id = ?)"
+                + " AND d.id > ?))", keyset.condition());
+        assertEquals(" ORDER BY d.name, d.id", keyset.orderBy());
+        PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+        assertEquals(5, keyset.bind(statement, 1));
+        Mockito.verify(statement).setLong(1, 7L);
+        Mockito.verify(statement).setLong(2, 7L);
+        Mockito.verify(statement).setLong(3, 7L);
+        Mockito.verify(statement).setInt(4, 3);
+        Page<Long> page = keyset.toPage(ids(9L, 8L), Function.identity());
+        assertEquals(9L, page.getPreviousCursor());
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    void previousPage_Ok() {
+        KeysetQuery keyset = new KeysetQuery("drivers", "d", SORT_COLUMNS,
+                new PageRequest(null, 5L, 2, null));
+        assertEquals("d.id < ?", keyset.condition());
+        assertEquals(" ORDER BY d.id DESC", keyset.orderBy());
+        Page<Long> page = keyset.toPage(ids(4L, 3L, 2L), Function.identity());
+        assertEquals(List.of(3L, 4L), page.getItems());
+        assertEquals(3L, page.getPreviousCursor());
+        assertEquals(4L, page.getNextCursor());
+        page = keyset.toPage(ids(1L), Function.identity());
+        assertFalse(page.hasPrevious());
+        assertTrue(page.hasNext());
+    }
+
+    @Test
+    void unknownSortColumn_notOk() {
+        assertThrows(InvalidPageRequestException.class, () -> new KeysetQuery("drivers", "d",
+                SORT_COLUMNS, new PageRequest(null, null, 2, "password")));
+    }
+
+    private static List<Long> ids(Long... ids) {
+        return new ArrayList<>(List.of(ids));
+    }
+}
@@ -0,0 +1,145 @@
+package taxi.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import taxi.model.Car;
+import taxi.model.Driver;
+import taxi.model.Manufacturer;
+import taxi.model.ModelsGenerator;
+import taxi.util.ConnectionUtil;
+
+class StreamAllTest {
+    private static final String MARKER = "StreamAllTest";
+    // more rows than one fetch, so the stream has to go back for the rest
+    private static final int ROWS = ConnectionUtil.getStreamingFetchSize() * 2 + 1;
+    private static final int STOP_AFTER = 10;
+    private static final List<Manufacturer> manufacturers = new ArrayList<>();
+    private static final List<Driver> drivers = new ArrayList<>();
+    private static final List<Car> cars = new ArrayList<>();
+
+    @BeforeAll
+    static void setUp() {
+        for (int i = 0; i < ROWS; i++) {
+            manufacturers.add(ModelsGenerator.generateManufacturer(MARKER, "manufacturer " + i));
+            drivers.add(ModelsGenerator.generateDriver(MARKER + i, "driver " + i, "password",
+                    MARKER));
+        }
+        new ManufacturerDaoImpl().createAll(manufacturers);
+        new DriverDaoImpl().createAll(drivers);
+        for (int i = 0; i < ROWS; i++) {
+            Car car = ModelsGenerator.generateCar(MARKER, manufacturers.get(i));
+            // every other car gets two drivers, the rest none
+            if (i % 2 == 0) {
+                car.getDrivers().add(drivers.get(i));
+                car.getDrivers().add(drivers.get((i + 1) % ROWS));
+            }
+            cars.add(car);
+        }
+        new CarDaoImpl().createAll(cars);
+    }
+
+    @AfterAll
+    static void tearDown() throws SQLException {
+        try (Connection connection = ConnectionUtil.getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM cars_drivers WHERE car_id IN"
+                    + " (SELECT id FROM cars WHERE model = '" + MARKER + "')");
+            statement.execute("DELETE FROM cars WHERE model = '" + MARKER + "'");
+            statement.execute("DELETE FROM drivers WHERE license_number = '" + MARKER + "'");
+            statement.execute("DELETE FROM manufacturers WHERE country = '" + MARKER + "'");
+        }
+    }
+
+    @AfterEach
+    void connectionReturned() {
+        assertEquals(0, ConnectionUtil.getPoolStats().getActive());
+    }
+
+    @Test
+    void manufacturers_streamAll_Ok() {
+        Map<Long, Manufacturer> streamed = new HashMap<>();
+        new ManufacturerDaoImpl().streamAll(manufacturer -> {
+            if (MARKER.equals(manufacturer.getCountry())) {
+                streamed.put(manufacturer.getId(), manufacturer);
+            }
+        });
+        assertEquals(ROWS, streamed.size());
+        for (Manufacturer manufacturer : manufacturers) {
+            assertEquals(manufacturer.getName(), streamed.get(manufacturer.getId()).getName());
+        }
+    }
+
+    @Test
+    void drivers_streamAll_Ok() {
+        Map<Long, Driver> streamed = new HashMap<>();
+        new DriverDaoImpl().streamAll(driver -> {
+            if (MARKER.equals(driver.getLicenseNumber())) {
+                streamed.put(driver.getId(), driver);
+            }
+        });
+        assertEquals(ROWS, streamed.size());
+        for (Driver driver : drivers) {
+            Driver actual = streamed.get(driver.getId());
+            assertEquals(driver.getName(), actual.getName());
+            assertEquals(driver.getLogin(), actual.getLogin());
+        }
+    }
+
+    @Test
+    void cars_streamAll_Ok() {
+        Map<Long, Car> streamed = new HashMap<>();
+        new CarDaoImpl().streamAll(car -> {
+            if (MARKER.equals(car.getModel())) {
+                streamed.put(car.getId(), car);
+            }
+        });
+        assertEquals(ROWS, streamed.size());
+        for (Car car : cars) {
+            Car actual = streamed.get(car.getId());
+            assertEquals(car.getManufacturer().getName(), actual.getManufacturer().getName());
+            assertEquals(ids(car.getDrivers()), ids(actual.getDrivers()));
+            assertEquals(car.getDrivers().size(), actual.getPersistedDriverIds().size());
+        }
+    }
+
+    @Test
+    void streamAll_stoppedPartway_connectionReturned() {
+        stopPartway(new ManufacturerDaoImpl()::streamAll);
+        stopPartway(new DriverDaoImpl()::streamAll);
+        stopPartway(new CarDaoImpl()::streamAll);
+    }
+
+    private static <T> void stopPartway(Consumer<Consumer<T>> streamAll) {
+        IllegalStateException stop = new IllegalStateException("stop");
+        List<T> streamed = new ArrayList<>();
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> streamAll.accept(element -> {
+                    streamed.add(element);
+                    if (streamed.size() == STOP_AFTER) {
+                        throw stop;
+                    }
+                }));
+        assertSame(stop, thrown);
+        assertEquals(STOP_AFTER, streamed.size());
+        assertEquals(0, ConnectionUtil.getPoolStats().getActive());
+    }
+
+    private static List<Long> ids(List<Driver> drivers) {
+        return drivers.stream().map(Driver::getId).sorted().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,48 @@
+package taxi.lib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import taxi.dao.CarDao;
+import taxi.dao.DriverDao;
+import taxi.service.AuthenticationService;
+import taxi.service.CarService;
+import taxi.service.CarServiceImpl;
+
+class ComponentIndexTest {
+    @Test
+    void load_generatedIndex_Ok() throws IOException {
+        List<ComponentIndex.Entry> entries =
+                ComponentIndex.load(ComponentIndexTest.class.getClassLoader());
+        assertNotNull(entries);
+        ComponentIndex.Entry carService = entries.stream()
+                .filter(entry -> entry.getClassName().equals(CarServiceImpl.class.getName()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("Service", carService.getKind());
+        assertEquals(List.of(CarService.class.getName()), carService.getInterfaces());
+        assertEquals(Map.of("carDao", "taxi.dao.CarDao"), carService.getInjectFields());
+        assertTrue(entries.stream().anyMatch(entry -> entry.getKind().equals("Decorator")));
+    }
+
+    @Test
+    void injector_resolvesFromIndex_Ok() {
+        Object carService = Injector.getInstance("taxi").getInstance(CarService.class);
+        assertTrue(carService instanceof CarServiceImpl);
+    }
+
+    @Test
+    void injector_dependencyGraphFromIndex_Ok() {
+        List<Class<?>> components = new ArrayList<>(
+                Injector.getInstance("taxi").initializeAll().keySet());
+        assertTrue(components.indexOf(CarDao.class) < components.indexOf(CarService.class));
+        assertTrue(components.indexOf(DriverDao.class)
+                < components.indexOf(AuthenticationService.class));
+    }
+}
@@ -0,0 +1,84 @@
+package taxi.lib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import taxi.lib.fixture.Fixtures;
+import taxi.metrics.DaoTimings;
+
+class InjectorTest {
+    private static final Injector injector = Injector.getInstance("taxi.lib.fixture");
+
+    @Test
+    void getInstance_injectsDecoratedDependency_Ok() {
+        Fixtures.Facade facade = (Fixtures.Facade) injector.getInstance(Fixtures.Facade.class);
+        assertEquals("STORED", facade.find());
+        assertTrue(injector.getInstance(Fixtures.Repository.class)
+                instanceof Fixtures.LoudRepository);
+    }
+
+    @Test
+    void getInstance_daoCallsAreTimed_Ok() {
+        Fixtures.Facade facade = (Fixtures.Facade) injector.getInstance(Fixtures.Facade.class);
+        long before = DaoTimings.get("Repository", "find").getNanos().getCount();
+        facade.find();
+        assertEquals(before + 1, DaoTimings.get("Repository", "find").getNanos().getCount());
+    }
+
+    @Test
+    void getInstance_parallel_sameInstance_Ok() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Object>> lookups = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                lookups.add(() -> Injector.getInstance("taxi.lib.fixture")
+                        .getInstance(Fixtures.Facade.class));
+            }
+            List<Future<Object>> instances = executor.invokeAll(lookups);
+            Object expected = instances.get(0).get();
+            for (Future<Object> instance : instances) {
+                assertSame(expected, instance.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void initializeAll_Ok() {
+        Map<Class<?>, Long> timings = injector.initializeAll();
+        assertEquals(List.of(Fixtures.Repository.class, Fixtures.Facade.class),
+                new ArrayList<>(timings.keySet()));
+        assertSame(injector.getInstance(Fixtures.Facade.class),
+                Injector.getInstance("taxi.lib.fixture").getInstance(Fixtures.Facade.class));
+    }
+
+    @Test
+    void getInstance_circularDependency_notOk() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> Injector.getInstance("taxi.lib.cycle"));
+        assertTrue(exception.getMessage().startsWith("Circular dependency"));
+    }
+
+    @Test
+    void getInstance_missingDependency_notOk() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> Injector.getInstance("taxi.lib.missing"));
+        assertTrue(exception.getMessage().contains("Unimplemented"));
+    }
+
+    @Test
+    void getInstance_missingImplementation_notOk() {
+        assertThrows(RuntimeException.class, () -> injector.getInstance(Runnable.class));
+    }
+}
@@ -0,0 +1,24 @@
+package taxi.lib.cycle;
+
+import taxi.lib.Inject;
+import taxi.lib.Service;
+
+public class CycleFixtures {
+    public interface Left {
+    }
+
+    public interface Right {
+    }
+
+    @Service
+    public static class LeftImpl implements Left {
+        @Inject
+        private Right right;
+    }
+
+    @Service
+    public static class RightImpl implements Right {
+        @Inject
+        private Left left;
+    }
+}
@@ -0,0 +1,49 @@
+package taxi.lib.fixture;
+
+import taxi.lib.Dao;
+import taxi.lib.Decorator;
+import taxi.lib.Inject;
+import taxi.lib.Service;
+
+public class Fixtures {
+    public interface Repository {
+        String find();
+    }
+
+    public interface Facade {
+        String find();
+    }
+
+    @Dao
+    public static class RepositoryImpl implements Repository {
+        @Override
+        public String find() {
+            return "stored";
+        }
+    }
+
+    @Decorator
+    public static class LoudRepository implements Repository {
+        private final Repository repository;
+
+        public LoudRepository(Repository repository) {
+            this.repository = repository;
+        }
+
+        @Override
+        public String find() {
+            return repository.find().toUpperCase();
+        }
+    }
+
+    @Service
+    public static class FacadeImpl implements Facade {
+        @Inject
+        private Repository repository;
+
+        @Override
+        public String find() {
+            return repository.find();
+        }
+    }
+}
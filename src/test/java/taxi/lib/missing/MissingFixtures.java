@@ -0,0 +1,18 @@
+package taxi.lib.missing;
+
+import taxi.lib.Inject;
+import taxi.lib.Service;
+
+public class MissingFixtures {
+    public interface Unimplemented {
+    }
+
+    public interface Consumer {
+    }
+
+    @Service
+    public static class ConsumerImpl implements Consumer {
+        @Inject
+        private Unimplemented unimplemented;
+    }
+}
@@ -0,0 +1,76 @@
+package taxi.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class HistogramTest {
+    @Test
+    void bucketOf_upperBoundCoversValue_Ok() {
+        for (long value : new long[]{0, 1, 7, 8, 9, 15, 16, 1000, 123_456_789L, Long.MAX_VALUE}) {
+            int bucket = Histogram.bucketOf(value);
+            assertTrue(Histogram.upperBoundOf(bucket) >= value, "value " + value);
+            assertTrue(bucket == 0 || Histogram.upperBoundOf(bucket - 1) < value,
+                    "value " + value);
+        }
+    }
+
+    @Test
+    void getPercentile_withinPrecision_Ok() {
+        Histogram histogram = new Histogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value * 1000);
+        }
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(10_000_000, histogram.getMax());
+        assertWithin(5_000_000, histogram.getPercentile(0.5));
+        assertWithin(9_500_000, histogram.getPercentile(0.95));
+        assertWithin(9_900_000, histogram.getPercentile(0.99));
+        assertEquals(10_000_000, histogram.getPercentile(1));
+    }
+
+    @Test
+    void record_concurrently_noLostUpdates_Ok() throws InterruptedException {
+        Histogram histogram = new Histogram();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < 100_000; j++) {
+                    histogram.record(j);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        assertEquals(800_000, histogram.getCount());
+        assertEquals(99_999, histogram.getMax());
+    }
+
+    @Test
+    void timingProxy_countsErrorsAndRethrowsCause_Ok() {
+        Source failing = () -> {
+            throw new SQLException("boom");
+        };
+        Source timed = TimingProxy.wrap(Source.class, failing);
+        DaoTimings.Timer timer = DaoTimings.get("Source", "load");
+        long errors = timer.getErrorCount();
+        assertThrows(SQLException.class, timed::load);
+        assertEquals(errors + 1, timer.getErrorCount());
+        assertEquals(failing.hashCode(), timed.hashCode());
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / 8,
+                "expected about " + expected + " but was " + actual);
+    }
+
+    interface Source {
+        String load() throws SQLException;
+    }
+}
@@ -10,12 +10,15 @@ import taxi.model.Car;
 import taxi.model.Driver;
 import taxi.model.Manufacturer;
 import taxi.model.ModelsGenerator;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.junit.jupiter.api.Assertions.*;
@@ -73,33 +76,55 @@ class CarServiceTest {
 
     @Test
     void addDriverToCar_Ok() {
-        Mockito.when(carDao.update(any())).thenAnswer(i -> i.getArgument(0));
+        Mockito.when(carDao.addDriver(any(), any())).thenReturn(true);
         carService.addDriverToCar(firstDriver, firstCar);
         assertEquals(1, firstCar.getDrivers().size());
         assertEquals(firstDriver, firstCar.getDrivers().get(0));
         carService.addDriverToCar(secondDriver, firstCar);
         assertEquals(2, firstCar.getDrivers().size());
         assertEquals(secondDriver, firstCar.getDrivers().get(1));
+        Mockito.verify(carDao, Mockito.times(2)).addDriver(any(), any());
+        Mockito.verify(carDao, Mockito.never()).update(any());
+    }
+
+    @Test
+    void addDriverToCar_alreadyLinked_notDuplicated() {
+        Car car = ModelsGenerator.generatePersistentCar(CAR_1_ID,
+                ModelsGenerator.generateCar("Car 3", null));
+        Driver driver = ModelsGenerator.generatePersistentDriver(7L,
+                ModelsGenerator.generateDriver("driver7", "driver 7", "password", "LN7"));
+        car.markDriversPersisted();
+        Mockito.when(carDao.addDriver(CAR_1_ID, 7L)).thenReturn(true, false);
+        carService.addDriverToCar(driver, car);
+        carService.addDriverToCar(driver, car);
+        assertEquals(List.of(driver), car.getDrivers());
+        assertEquals(Set.of(7L), car.getPersistedDriverIds());
+        carService.removeDriverFromCar(driver, car);
+        assertTrue(car.getDrivers().isEmpty());
+        assertTrue(car.getPersistedDriverIds().isEmpty());
     }
 
     @Test
     void addDriverToCar_dataProcException_notOk() {
-        Mockito.when(carDao.update(any())).thenThrow(DataProcessingException.class);
+        Mockito.when(carDao.addDriver(any(), any())).thenThrow(DataProcessingException.class);
         assertThrows(DataProcessingException.class,
                 () -> carService.addDriverToCar(firstDriver, firstCar));
+        assertTrue(firstCar.getDrivers().isEmpty());
     }
 
     @Test
     void removeDriverFromCar_Ok() {
         firstCar.getDrivers().add(firstDriver);
         firstCar.getDrivers().add(secondDriver);
-        Mockito.when(carDao.update(any())).thenAnswer(i -> i.getArgument(0));
+        Mockito.when(carDao.removeDriver(any(), any())).thenReturn(true);
         carService.removeDriverFromCar(firstDriver, firstCar);
         assertEquals(1, firstCar.getDrivers().size());
         assertFalse(firstCar.getDrivers().contains(firstDriver));
         assertTrue(firstCar.getDrivers().contains(secondDriver));
         carService.removeDriverFromCar(secondDriver, firstCar);
         assertTrue(firstCar.getDrivers().isEmpty());
+        Mockito.verify(carDao, Mockito.times(2)).removeDriver(any(), any());
+        Mockito.verify(carDao, Mockito.never()).update(any());
     }
 
     @Test
@@ -149,6 +174,27 @@ class CarServiceTest {
                 () -> carService.create(firstCar));
     }
 
+    @Test
+    void createAll_Ok() {
+        List<Car> cars = List.of(firstCar, secondCar);
+        Mockito.when(carDao.createAll(cars)).thenAnswer(i -> {
+            ModelsGenerator.generatePersistentCar(CAR_1_ID, firstCar);
+            ModelsGenerator.generatePersistentCar(CAR_2_ID, secondCar);
+            return cars;
+        });
+        List<Car> actual = carService.createAll(cars);
+        assertEquals(cars, actual);
+        assertEquals(CAR_1_ID, actual.get(0).getId());
+        assertEquals(CAR_2_ID, actual.get(1).getId());
+    }
+
+    @Test
+    void createAll_dataProcException_notOk() {
+        Mockito.when(carDao.createAll(any())).thenThrow(DataProcessingException.class);
+        assertThrows(DataProcessingException.class,
+                () -> carService.createAll(List.of(firstCar)));
+    }
+
     @Test
     void get_Ok() {
         Mockito.when(carDao.get(CAR_1_ID)).thenReturn(Optional.of(
@@ -194,6 +240,26 @@ class CarServiceTest {
         assertTrue(actual.containsAll(List.of(firstCar, secondCar)));
     }
 
+    @Test
+    void getPage_Ok() {
+        PageRequest pageRequest = new PageRequest(null, CAR_2_ID, 1, "model");
+        Page<Car> expected = new Page<>(List.of(
+                ModelsGenerator.generatePersistentCar(CAR_1_ID, firstCar)), null, CAR_1_ID);
+        Mockito.when(carDao.getPage(pageRequest)).thenReturn(expected);
+        Page<Car> actual = carService.getPage(pageRequest);
+        assertNotNull(actual);
+        assertEquals(1, actual.getItems().size());
+        assertTrue(actual.getItems().contains(firstCar));
+        assertEquals(CAR_1_ID, actual.getNextCursor());
+    }
+
+    @Test
+    void streamAll_dataProcException_notOk() {
+        Mockito.doThrow(DataProcessingException.class).when(carDao).streamAll(any());
+        assertThrows(DataProcessingException.class,
+                () -> carService.streamAll(car -> { }));
+    }
+
     @Test
     void update_Ok() {
         Mockito.when(carDao.update(any())).thenAnswer(i -> i.getArgument(0));
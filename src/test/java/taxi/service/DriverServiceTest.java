@@ -8,12 +8,16 @@ import taxi.dao.DriverDao;
 import taxi.exception.DataProcessingException;
 import taxi.model.Driver;
 import taxi.model.ModelsGenerator;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -118,6 +122,41 @@ class DriverServiceTest {
         assertThrows(DataProcessingException.class, () -> driverService.getAll());
     }
 
+    @Test
+    void getPage_Ok() {
+        PageRequest pageRequest = PageRequest.after(DRIVER_1_ID, 1);
+        Page<Driver> expected = new Page<>(List.of(
+                ModelsGenerator.generatePersistentDriver(DRIVER_2_ID, secondDriver)),
+                DRIVER_2_ID, null);
+        Mockito.when(driverDao.getPage(pageRequest)).thenReturn(expected);
+        Page<Driver> actual = driverService.getPage(pageRequest);
+        assertEquals(expected, actual);
+        assertTrue(actual.hasPrevious());
+        assertFalse(actual.hasNext());
+    }
+
+    @Test
+    void getPage_dataProcException_notOk() {
+        Mockito.when(driverDao.getPage(any())).thenThrow(DataProcessingException.class);
+        assertThrows(DataProcessingException.class,
+                () -> driverService.getPage(PageRequest.first(PageRequest.DEFAULT_SIZE)));
+    }
+
+    @Test
+    void streamAll_Ok() {
+        List<Driver> expected = List.of(
+                ModelsGenerator.generatePersistentDriver(DRIVER_1_ID, firstDriver),
+                ModelsGenerator.generatePersistentDriver(DRIVER_2_ID, secondDriver));
+        Mockito.doAnswer(i -> {
+            Consumer<Driver> consumer = i.getArgument(0);
+            expected.forEach(consumer);
+            return null;
+        }).when(driverDao).streamAll(any());
+        List<Driver> actual = new ArrayList<>();
+        driverService.streamAll(actual::add);
+        assertEquals(expected, actual);
+    }
+
     @Test
     void update_Ok() {
         Mockito.when(driverDao.update(any())).thenAnswer(i -> i.getArgument(0));
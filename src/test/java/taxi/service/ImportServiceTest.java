@@ -0,0 +1,120 @@
+package taxi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+
+import java.io.StringReader;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import taxi.bulk.ImportFormat;
+import taxi.bulk.ImportReport;
+import taxi.bulk.ImportType;
+import taxi.exception.DataProcessingException;
+import taxi.model.Car;
+import taxi.model.Driver;
+import taxi.model.Manufacturer;
+import taxi.model.ModelsGenerator;
+
+class ImportServiceTest {
+    private static final Long MANUFACTURER_ID = 7L;
+    private static ImportService importService;
+    private static DriverService driverService;
+    private static ManufacturerService manufacturerService;
+    private static CarService carService;
+
+    @BeforeAll
+    static void beforeAll() throws NoSuchFieldException, IllegalAccessException {
+        importService = new ImportServiceImpl();
+        driverService = Mockito.mock(DriverService.class);
+        manufacturerService = Mockito.mock(ManufacturerService.class);
+        carService = Mockito.mock(CarService.class);
+        inject("driverService", driverService);
+        inject("manufacturerService", manufacturerService);
+        inject("carService", carService);
+    }
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset(driverService);
+        Mockito.reset(manufacturerService);
+        Mockito.reset(carService);
+    }
+
+    @Test
+    void importDriversCsv_Ok() {
+        List<Driver> stored = new ArrayList<>();
+        Mockito.when(driverService.createAll(any())).thenAnswer(i -> {
+            List<Driver> drivers = i.getArgument(0);
+            stored.addAll(drivers);
+            return drivers;
+        });
+        String csv = "name,license_number,login,password\n"
+                + "Bob,AB123,bob,secret\r\n"
+                + "\"Smith, Ann\",\"CD \"\"7\"\"\",ann,pass\n"
+                + "Joe,,joe,pass\n";
+        ImportReport report = importService.importData(ImportType.DRIVERS, ImportFormat.CSV,
+                new StringReader(csv), progress -> { });
+        assertEquals(3, report.getRead());
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getRejected());
+        assertEquals("line 4: Field license_number is required", report.getRejections().get(0));
+        assertEquals(ModelsGenerator.generateDriver("ann", "Smith, Ann", "pass", "CD \"7\""),
+                stored.get(1));
+    }
+
+    @Test
+    void importCarsNdjson_Ok() {
+        Manufacturer manufacturer = ModelsGenerator.generatePersistentManufacturer(
+                MANUFACTURER_ID, ModelsGenerator.generateManufacturer("Japan", "Toyota"));
+        Mockito.doAnswer(i -> {
+            Consumer<Manufacturer> consumer = i.getArgument(0);
+            consumer.accept(manufacturer);
+            return null;
+        }).when(manufacturerService).streamAll(any());
+        List<Car> stored = new ArrayList<>();
+        Mockito.when(carService.createAll(any())).thenAnswer(i -> {
+            List<Car> cars = i.getArgument(0);
+            stored.addAll(cars);
+            return cars;
+        });
+        String ndjson = "{\"model\": \"Corolla\", \"manufacturer\": \"Toyota\"}\n"
+                + "{\"model\": \"Camry\", \"manufacturer_id\": 7}\n"
+                + "{\"model\": \"Model S\", \"manufacturer\": \"Tesla\"}\n";
+        ImportReport report = importService.importData(ImportType.CARS, ImportFormat.NDJSON,
+                new StringReader(ndjson), progress -> { });
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getRejected());
+        assertEquals(List.of(new Car("Corolla", manufacturer), new Car("Camry", manufacturer)),
+                stored);
+    }
+
+    @Test
+    void importManufacturers_dataProcException_notOk() {
+        Mockito.when(manufacturerService.createAll(any()))
+                .thenThrow(DataProcessingException.class);
+        assertThrows(DataProcessingException.class,
+                () -> importService.importData(ImportType.MANUFACTURERS, ImportFormat.CSV,
+                        new StringReader("name,country\nAudi,Germany\n"), progress -> { }));
+    }
+
+    @Test
+    void importMalformedNdjson_notOk() {
+        assertThrows(DataProcessingException.class,
+                () -> importService.importData(ImportType.MANUFACTURERS, ImportFormat.NDJSON,
+                        new StringReader("[1, 2]\n"), progress -> { }));
+    }
+
+    private static void inject(String fieldName, Object value)
+            throws NoSuchFieldException, IllegalAccessException {
+        Field field = ImportServiceImpl.class.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(importService, value);
+    }
+}
@@ -8,6 +8,8 @@ import taxi.dao.ManufacturerDao;
 import taxi.exception.DataProcessingException;
 import taxi.model.Manufacturer;
 import taxi.model.ModelsGenerator;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 
 import java.lang.reflect.Field;
 import java.util.Collections;
@@ -68,6 +70,18 @@ class ManufacturerServiceTest {
     }
 
 
+    @Test
+    void createAll_Ok() {
+        List<Manufacturer> manufacturers = List.of(firstManufacturer, secondManufacturer);
+        Mockito.when(manufacturerDao.createAll(manufacturers)).thenReturn(List.of(
+                ModelsGenerator.generatePersistentManufacturer(FIRST_ID, firstManufacturer),
+                ModelsGenerator.generatePersistentManufacturer(SECOND_ID, secondManufacturer)));
+        List<Manufacturer> actual = manufacturerService.createAll(manufacturers);
+        assertEquals(2, actual.size());
+        assertEquals(FIRST_ID, actual.get(0).getId());
+        assertEquals(SECOND_ID, actual.get(1).getId());
+    }
+
     @Test
     void get_Ok() {
         Mockito.when(manufacturerDao.get(FIRST_ID))
@@ -117,6 +131,20 @@ class ManufacturerServiceTest {
         assertThrows(DataProcessingException.class, () -> manufacturerService.getAll());
     }
 
+    @Test
+    void getPage_Ok() {
+        PageRequest pageRequest = PageRequest.first(2);
+        Page<Manufacturer> expected = new Page<>(List.of(
+                ModelsGenerator.generatePersistentManufacturer(FIRST_ID, firstManufacturer),
+                ModelsGenerator.generatePersistentManufacturer(SECOND_ID, secondManufacturer)),
+                null, SECOND_ID);
+        Mockito.when(manufacturerDao.getPage(pageRequest)).thenReturn(expected);
+        Page<Manufacturer> actual = manufacturerService.getPage(pageRequest);
+        assertEquals(expected, actual);
+        assertTrue(actual.hasNext());
+        assertFalse(actual.hasPrevious());
+    }
+
     @Test
     void update_Ok() {
         Mockito.when(manufacturerDao.update(firstManufacturer))
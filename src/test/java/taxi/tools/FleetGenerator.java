@@ -0,0 +1,445 @@
+package taxi.tools;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generates a synthetic fleet for scale tests: manufacturers, drivers, cars
+ * and the {@code cars_drivers} links between them, written in parallel
+ * chunks either straight into a database through batched inserts or into
+ * CSV files with a {@code load.sql} script of MySQL {@code LOAD DATA}
+ * statements.
+ *
+ * <p>Every value is a function of the seed and the row id, so the output
+ * doesn't depend on the number of threads or the chunk size, and the same
+ * seed always gives the same fleet. Cars are spread over manufacturers and
+ * drivers with a power law, so a few manufacturers and drivers have most of
+ * the cars. The number of drivers per car follows a geometric distribution
+ * around {@code meanDriversPerCar}, capped at {@code maxDriversPerCar}.
+ * Drivers log in as {@code driver<id>} with {@link #PASSWORD}, and license
+ * numbers are unique too. Rows are soft deleted with the probability
+ * {@code deletedFraction}.
+ *
+ * <p>Run {@link #main} with {@code name=value} arguments, see
+ * {@code README.md}.
+ */
+public class FleetGenerator {
+    public static final String PASSWORD = "password";
+    private static final String[] BRANDS = {"Toyota", "Volkswagen", "Ford", "Hyundai",
+            "Honda", "Nissan", "Kia", "Chevrolet", "Renault", "Skoda", "BMW", "Mercedes-Benz",
+            "Peugeot", "Audi", "Mazda", "Fiat", "Tesla", "Volvo", "Suzuki", "Citroen"};
+    private static final String[] COUNTRIES = {"Japan", "Germany", "USA", "South Korea",
+            "Japan", "Japan", "South Korea", "USA", "France", "Czech Republic", "Germany",
+            "Germany", "France", "Germany", "Japan", "Italy", "USA", "Sweden", "Japan", "France"};
+    private static final String[] MODELS = {"Corolla", "Golf", "Focus", "Elantra", "Civic",
+            "Leaf", "Rio", "Malibu", "Logan", "Octavia", "Camry", "Passat", "Sonata", "Accord",
+            "Model 3", "Prius", "Ceed", "Megane", "Superb", "Tucson"};
+    private static final String[] FIRST_NAMES = {"Olena", "Andrii", "Maria", "Taras", "Iryna",
+            "Dmytro", "Sofia", "Oleksii", "Anna", "Mykola", "Kateryna", "Ivan", "Yulia", "Petro",
+            "Natalia", "Serhii"};
+    private static final String[] LAST_NAMES = {"Shevchenko", "Kovalenko", "Bondarenko",
+            "Tkachenko", "Kravchenko", "Oliinyk", "Melnyk", "Koval", "Boiko", "Moroz", "Lysenko",
+            "Savchenko", "Rudenko", "Marchenko", "Petrenko", "Klymenko"};
+    private static final double MANUFACTURER_SKEW = 3;
+    private static final double DRIVER_SKEW = 2;
+    private static final int ATTEMPTS = 8;
+    private static final long COUNT_STREAM = 1;
+    private static final long MANUFACTURER_STREAM = 2;
+    private static final long MODEL_STREAM = 3;
+    private static final long FIRST_NAME_STREAM = 4;
+    private static final long LAST_NAME_STREAM = 5;
+    private static final long DELETED_STREAM = 6;
+    private static final long DRIVER_STREAM = 16;
+    private final long manufacturers;
+    private final long drivers;
+    private final long cars;
+    private long seed = 1;
+    private double deletedFraction = 0.05;
+    private double meanDriversPerCar = 2;
+    private int maxDriversPerCar = 8;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int chunkSize = 50_000;
+    private int batchSize = 1_000;
+
+    public FleetGenerator(long manufacturers, long drivers, long cars) {
+        if (manufacturers < 1 || drivers < 1 || cars < 0) {
+            throw new IllegalArgumentException("A fleet needs manufacturers and drivers, got "
+                    + manufacturers + " and " + drivers);
+        }
+        this.manufacturers = manufacturers;
+        this.drivers = drivers;
+        this.cars = cars;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] nameAndValue = arg.split("=", 2);
+            if (nameAndValue.length != 2) {
+                throw new IllegalArgumentException("Expected name=value, got " + arg);
+            }
+            options.put(nameAndValue[0], nameAndValue[1]);
+        }
+        FleetGenerator generator = new FleetGenerator(
+                Long.parseLong(options.getOrDefault("manufacturers", "1000")),
+                Long.parseLong(options.getOrDefault("drivers", "1500000")),
+                Long.parseLong(options.getOrDefault("cars", "3000000")));
+        generator.setSeed(Long.parseLong(options.getOrDefault("seed", "1")));
+        generator.setDeletedFraction(
+                Double.parseDouble(options.getOrDefault("deletedFraction", "0.05")));
+        generator.setMeanDriversPerCar(
+                Double.parseDouble(options.getOrDefault("meanDriversPerCar", "2")));
+        generator.setMaxDriversPerCar(
+                Integer.parseInt(options.getOrDefault("maxDriversPerCar", "8")));
+        generator.setThreads(Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors()))));
+        long start = System.nanoTime();
+        Map<Table, Long> rows;
+        String url = options.get("db.url");
+        if (url != null) {
+            rows = generator.insert(url, options.getOrDefault("db.username", ""),
+                    options.getOrDefault("db.password", ""));
+        } else {
+            Path directory = Paths.get(options.getOrDefault("csv", "target/fleet"));
+            rows = generator.writeCsv(directory);
+            System.out.println("Load with: mysql --local-infile=1 taxi < "
+                    + directory.resolve("load.sql"));
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long total = rows.values().stream().mapToLong(Long::longValue).sum();
+        rows.forEach((table, count) -> System.out.printf("%-14s %,13d%n", table.getName(), count));
+        System.out.printf("%,d rows in %.1f s, %,.0f rows/s%n", total, seconds, total / seconds);
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public void setDeletedFraction(double deletedFraction) {
+        this.deletedFraction = deletedFraction;
+    }
+
+    public void setMeanDriversPerCar(double meanDriversPerCar) {
+        this.meanDriversPerCar = meanDriversPerCar;
+    }
+
+    public void setMaxDriversPerCar(int maxDriversPerCar) {
+        this.maxDriversPerCar = maxDriversPerCar;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Replaces the content of the four tables with the fleet. Every chunk is
+     * inserted and committed on its own connection. MySQL connections get
+     * {@code rewriteBatchedStatements}, so a batch goes out as one statement.
+     */
+    public Map<Table, Long> insert(String url, String username, String password)
+            throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", username);
+        properties.setProperty("password", password);
+        if (url.startsWith("jdbc:mysql:")) {
+            properties.setProperty("rewriteBatchedStatements", "true");
+        }
+        try (Connection connection = DriverManager.getConnection(url, properties);
+                Statement statement = connection.createStatement()) {
+            for (int i = Table.values().length - 1; i >= 0; i--) {
+                statement.execute("DELETE FROM " + Table.values()[i].getName());
+            }
+        }
+        return run((table, chunk, from, to) -> {
+            try (Connection connection = DriverManager.getConnection(url, properties)) {
+                connection.setAutoCommit(false);
+                long rows;
+                try (PreparedStatement statement = connection.prepareStatement(
+                        table.getInsertSql())) {
+                    rows = generate(table, from, to, values -> {
+                        for (int i = 0; i < values.length; i++) {
+                            statement.setObject(i + 1, values[i]);
+                        }
+                        statement.addBatch();
+                    }, statement::executeBatch);
+                    statement.executeBatch();
+                }
+                connection.commit();
+                return rows;
+            }
+        });
+    }
+
+    /**
+     * Writes one CSV file per chunk, named {@code <table>-<chunk>.csv}, and a
+     * {@code load.sql} that empties the tables and loads every file with
+     * {@code LOAD DATA LOCAL INFILE}. The chunk files of a table can also be
+     * loaded in parallel from several sessions.
+     */
+    public Map<Table, Long> writeCsv(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Map<Table, Long> rows = run((table, chunk, from, to) -> {
+            try (Writer writer = Files.newBufferedWriter(directory.resolve(
+                    fileName(table, chunk)), StandardCharsets.UTF_8)) {
+                StringBuilder line = new StringBuilder();
+                return generate(table, from, to, values -> {
+                    line.setLength(0);
+                    for (Object value : values) {
+                        if (line.length() > 0) {
+                            line.append(',');
+                        }
+                        line.append(value instanceof Boolean ? ((Boolean) value ? 1 : 0) : value);
+                    }
+                    writer.write(line.append('\n').toString());
+                }, () -> { });
+            }
+        });
+        try (BufferedWriter script = Files.newBufferedWriter(directory.resolve("load.sql"),
+                StandardCharsets.UTF_8)) {
+            script.write("SET FOREIGN_KEY_CHECKS = 0;\nSET UNIQUE_CHECKS = 0;\n");
+            for (Table table : Table.values()) {
+                script.write("TRUNCATE TABLE " + table.getName() + ";\n");
+            }
+            for (Table table : Table.values()) {
+                for (int chunk = 0; chunk < chunksOf(table); chunk++) {
+                    script.write(table.getLoadDataSql(directory.resolve(fileName(table, chunk))));
+                    script.write('\n');
+                }
+            }
+            script.write("SET UNIQUE_CHECKS = 1;\nSET FOREIGN_KEY_CHECKS = 1;\n");
+        }
+        return rows;
+    }
+
+    /**
+     * Passes the rows with ids {@code [from, to)} of the table to the writer
+     * and returns their number. For {@code cars_drivers} the ids are car ids.
+     */
+    long generate(Table table, long from, long to, RowWriter writer, Flush flush)
+            throws Exception {
+        long rows = 0;
+        for (long id = from; id < to; id++) {
+            switch (table) {
+                case MANUFACTURERS:
+                    int brand = (int) ((id - 1) % BRANDS.length);
+                    long series = (id - 1) / BRANDS.length;
+                    writer.write(id, series == 0 ? BRANDS[brand] : BRANDS[brand] + " " + series,
+                            COUNTRIES[brand], isDeleted(table, id));
+                    rows++;
+                    break;
+                case DRIVERS:
+                    writer.write(id, pick(FIRST_NAMES, id, FIRST_NAME_STREAM) + " "
+                            + pick(LAST_NAMES, id, LAST_NAME_STREAM),
+                            String.format("LN%08d", id), "driver" + id, PASSWORD,
+                            isDeleted(table, id));
+                    rows++;
+                    break;
+                case CARS:
+                    writer.write(id, pick(MODELS, id, MODEL_STREAM), manufacturerOf(id),
+                            isDeleted(table, id));
+                    rows++;
+                    break;
+                default:
+                    for (long driver : driversOf(id)) {
+                        writer.write(id, driver);
+                        rows++;
+                    }
+            }
+            if ((id - from + 1) % batchSize == 0) {
+                flush.flush();
+            }
+        }
+        return rows;
+    }
+
+    long manufacturerOf(long car) {
+        return skewed(manufacturers, MANUFACTURER_SKEW, uniform(car, MANUFACTURER_STREAM));
+    }
+
+    /**
+     * Returns the distinct drivers of the car. Picks are retried a few times
+     * when they hit a driver the car already has, then moved to the next id.
+     */
+    long[] driversOf(long car) {
+        int count = (int) Math.min(Math.min(maxDriversPerCar, drivers), driverCountOf(car));
+        long[] chosen = new long[count];
+        for (int i = 0; i < count; i++) {
+            long driver = 0;
+            for (int attempt = 0; attempt < ATTEMPTS
+                    && (driver == 0 || contains(chosen, i, driver)); attempt++) {
+                driver = skewed(drivers, DRIVER_SKEW,
+                        uniform(car, DRIVER_STREAM + (long) i * ATTEMPTS + attempt));
+            }
+            while (contains(chosen, i, driver)) {
+                driver = driver % drivers + 1;
+            }
+            chosen[i] = driver;
+        }
+        return chosen;
+    }
+
+    boolean isDeleted(Table table, long id) {
+        return uniform(id, DELETED_STREAM + table.ordinal()) < deletedFraction;
+    }
+
+    private long driverCountOf(long car) {
+        if (meanDriversPerCar <= 1) {
+            return 1;
+        }
+        double extra = Math.log1p(-uniform(car, COUNT_STREAM))
+                / Math.log1p(-1 / meanDriversPerCar);
+        return 1 + (long) Math.min(extra, Integer.MAX_VALUE);
+    }
+
+    private Map<Table, Long> run(ChunkWriter chunkWriter) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            Map<Table, Long> rows = new EnumMap<>(Table.class);
+            for (Table table : Table.values()) {
+                long ids = idsOf(table);
+                List<Future<Long>> chunks = new ArrayList<>();
+                for (int chunk = 0; chunk < chunksOf(table); chunk++) {
+                    long from = 1 + (long) chunk * chunkSize;
+                    long to = Math.min(ids + 1, from + chunkSize);
+                    int index = chunk;
+                    chunks.add(executor.submit(() -> chunkWriter.write(table, index, from, to)));
+                }
+                long total = 0;
+                for (Future<Long> chunk : chunks) {
+                    total += chunk.get();
+                }
+                rows.put(table, total);
+            }
+            return rows;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while generating the fleet", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Can't generate the fleet", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long idsOf(Table table) {
+        switch (table) {
+            case MANUFACTURERS:
+                return manufacturers;
+            case DRIVERS:
+                return drivers;
+            default:
+                return cars;
+        }
+    }
+
+    private int chunksOf(Table table) {
+        return (int) ((idsOf(table) + chunkSize - 1) / chunkSize);
+    }
+
+    private String pick(String[] values, long id, long stream) {
+        return values[(int) (uniform(id, stream) * values.length)];
+    }
+
+    /**
+     * A uniform value in {@code [0, 1)} for the row and the purpose, from the
+     * SplitMix64 finalizer.
+     */
+    private double uniform(long id, long stream) {
+        long z = seed + id * 0x9E3779B97F4A7C15L + stream * 0xC2B2AE3D27D4EB4FL;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return (z >>> 11) * 0x1.0p-53;
+    }
+
+    private static long skewed(long size, double skew, double uniform) {
+        return 1 + (long) (size * Math.pow(uniform, skew));
+    }
+
+    private static boolean contains(long[] values, int length, long value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String fileName(Table table, int chunk) {
+        return String.format("%s-%04d.csv", table.getName(), chunk);
+    }
+
+    public enum Table {
+        MANUFACTURERS("manufacturers", "id", "name", "country", "is_deleted"),
+        DRIVERS("drivers", "id", "name", "license_number", "login", "password", "is_deleted"),
+        CARS("cars", "id", "model", "manufacturer_id", "is_deleted"),
+        CARS_DRIVERS("cars_drivers", "car_id", "driver_id");
+
+        private final String name;
+        private final List<String> columns;
+
+        Table(String name, String... columns) {
+            this.name = name;
+            this.columns = List.of(columns);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        private String getInsertSql() {
+            return "INSERT INTO " + name + " (" + String.join(", ", columns) + ") VALUES ("
+                    + String.join(", ", columns.stream().map(column -> "?").toArray(String[]::new))
+                    + ")";
+        }
+
+        private String getLoadDataSql(Path file) {
+            String path = file.toAbsolutePath().toString().replace('\\', '/');
+            String targets = String.join(", ", columns).replace("is_deleted", "@is_deleted");
+            return "LOAD DATA LOCAL INFILE '" + path + "' INTO TABLE " + name
+                    + " FIELDS TERMINATED BY ',' (" + targets + ")"
+                    + (columns.contains("is_deleted")
+                    ? " SET is_deleted = CAST(@is_deleted AS UNSIGNED)" : "") + ";";
+        }
+    }
+
+    interface RowWriter {
+        void write(Object... values) throws Exception;
+    }
+
+    interface Flush {
+        void flush() throws Exception;
+    }
+
+    private interface ChunkWriter {
+        long write(Table table, int chunk, long from, long to) throws Exception;
+    }
+}
@@ -0,0 +1,95 @@
+package taxi.tools;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FleetGeneratorTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void writeCsv_independentOfThreadsAndChunks_Ok() throws IOException {
+        FleetGenerator single = new FleetGenerator(10, 200, 1_000);
+        single.setThreads(1);
+        single.setChunkSize(1_000);
+        Map<FleetGenerator.Table, Long> rows = single.writeCsv(directory.resolve("single"));
+        FleetGenerator parallel = new FleetGenerator(10, 200, 1_000);
+        parallel.setThreads(4);
+        parallel.setChunkSize(64);
+        assertEquals(rows, parallel.writeCsv(directory.resolve("parallel")));
+        for (FleetGenerator.Table table : FleetGenerator.Table.values()) {
+            assertEquals(readAll(directory.resolve("single"), table),
+                    readAll(directory.resolve("parallel"), table));
+        }
+        assertEquals(1_000L, rows.get(FleetGenerator.Table.CARS));
+        assertTrue(Files.readString(directory.resolve("single").resolve("load.sql"))
+                .contains("LOAD DATA LOCAL INFILE"));
+    }
+
+    @Test
+    void writeCsv_uniqueLoginsAndLinks_Ok() throws IOException {
+        FleetGenerator generator = new FleetGenerator(5, 50, 2_000);
+        generator.setChunkSize(300);
+        generator.writeCsv(directory);
+        List<String> drivers = readAll(directory, FleetGenerator.Table.DRIVERS);
+        Set<String> logins = drivers.stream()
+                .map(line -> line.split(",")[3])
+                .collect(Collectors.toSet());
+        assertEquals(50, logins.size());
+        List<String> links = readAll(directory, FleetGenerator.Table.CARS_DRIVERS);
+        assertEquals(links.size(), new HashSet<>(links).size());
+    }
+
+    @Test
+    void driversOf_skewedAndCapped_Ok() {
+        FleetGenerator generator = new FleetGenerator(100, 10_000, 100_000);
+        generator.setMaxDriversPerCar(6);
+        long links = 0;
+        long single = 0;
+        long toFirstTenth = 0;
+        long deleted = 0;
+        for (long car = 1; car <= 100_000; car++) {
+            long[] drivers = generator.driversOf(car);
+            assertTrue(drivers.length >= 1 && drivers.length <= 6);
+            links += drivers.length;
+            single += drivers.length == 1 ? 1 : 0;
+            for (long driver : drivers) {
+                toFirstTenth += driver <= 1_000 ? 1 : 0;
+            }
+            deleted += generator.isDeleted(FleetGenerator.Table.CARS, car) ? 1 : 0;
+        }
+        double mean = links / 100_000.0;
+        assertTrue(mean > 1.8 && mean < 2.0, "mean drivers per car " + mean);
+        assertTrue(single > 45_000 && single < 55_000, "cars with one driver " + single);
+        assertTrue(toFirstTenth > links / 4, "links to the first tenth " + toFirstTenth);
+        assertTrue(deleted > 4_500 && deleted < 5_500, "deleted cars " + deleted);
+    }
+
+    private List<String> readAll(Path directory, FleetGenerator.Table table) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString()
+                            .startsWith(table.getName() + "-"))
+                    .sorted()
+                    .flatMap(file -> {
+                        try {
+                            return Files.readAllLines(file).stream();
+                        } catch (IOException e) {
+                            throw new RuntimeException(e);
+                        }
+                    })
+                    .collect(Collectors.toList());
+        }
+    }
+}
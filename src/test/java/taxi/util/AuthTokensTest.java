@@ -0,0 +1,41 @@
+package taxi.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class AuthTokensTest {
+    private static final Long USER_ID = 42L;
+    private static final long NOW = 1_700_000_000L;
+
+    @Test
+    void verify_Ok() {
+        String token = AuthTokens.issue(USER_ID, NOW);
+        assertEquals(USER_ID, AuthTokens.verify(token, NOW));
+        assertEquals(USER_ID, AuthTokens.verify(token, NOW + AuthTokens.getTtlSeconds() - 1));
+    }
+
+    @Test
+    void verify_expired_notOk() {
+        String token = AuthTokens.issue(USER_ID, NOW);
+        assertNull(AuthTokens.verify(token, NOW + AuthTokens.getTtlSeconds()));
+    }
+
+    @Test
+    void verify_tampered_notOk() {
+        String token = AuthTokens.issue(USER_ID, NOW);
+        assertNull(AuthTokens.verify("1" + token, NOW));
+        String longerLived = token.replaceFirst("\\.\\d+\\.", "." + (NOW * 2) + ".");
+        assertNull(AuthTokens.verify(longerLived, NOW));
+    }
+
+    @Test
+    void verify_malformed_notOk() {
+        assertNull(AuthTokens.verify(null, NOW));
+        assertNull(AuthTokens.verify("", NOW));
+        assertNull(AuthTokens.verify("42", NOW));
+        assertNull(AuthTokens.verify("42.abc", NOW));
+        assertNull(AuthTokens.verify("..", NOW));
+    }
+}
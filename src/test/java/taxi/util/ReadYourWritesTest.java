@@ -0,0 +1,50 @@
+package taxi.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import taxi.exception.DataProcessingException;
+
+class ReadYourWritesTest {
+    private static final String NAME = "ReadYourWritesTest";
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(
+                        "DELETE FROM manufacturers WHERE name = ?")) {
+            statement.setString(1, NAME);
+            statement.executeUpdate();
+        }
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    void inTransaction_write_pinsNextReadToPrimary() {
+        ReadYourWrites.clear();
+        assertFalse(ReadYourWrites.mustReadFromPrimary());
+        TransactionManager.runInTransaction(() -> {
+            try (Connection connection = ConnectionUtil.getConnection();
+                    PreparedStatement statement = connection.prepareStatement(
+                            "INSERT INTO manufacturers (name, country) VALUES (?, ?)")) {
+                statement.setString(1, NAME);
+                statement.setString(2, "Test");
+                statement.executeUpdate();
+            } catch (SQLException e) {
+                throw new DataProcessingException("Can't insert manufacturer", e);
+            }
+        });
+        assertTrue(ReadYourWrites.mustReadFromPrimary());
+    }
+
+    @Test
+    void restore_expiredWrite_readsFromReplica() {
+        ReadYourWrites.restore(System.currentTimeMillis() - ReadYourWrites.getWindowMillis());
+        assertFalse(ReadYourWrites.mustReadFromPrimary());
+    }
+}
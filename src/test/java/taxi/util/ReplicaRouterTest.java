@@ -0,0 +1,59 @@
+package taxi.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class ReplicaRouterTest {
+    @Test
+    void roundRobin_Ok() {
+        HikariDataSource first = replica(0);
+        HikariDataSource second = replica(0);
+        ReplicaRouter router = new ReplicaRouter(List.of(first, second),
+                ReplicaRouter.Strategy.ROUND_ROBIN);
+        assertSame(first, router.next());
+        assertSame(second, router.next());
+        assertSame(first, router.next());
+    }
+
+    @Test
+    void leastLoaded_Ok() {
+        HikariDataSource busy = replica(5);
+        HikariDataSource idle = replica(1);
+        HikariDataSource busiest = replica(9);
+        ReplicaRouter router = new ReplicaRouter(List.of(busy, idle, busiest),
+                ReplicaRouter.Strategy.LEAST_LOADED);
+        assertSame(idle, router.next());
+        assertSame(idle, router.next());
+        assertSame(idle, router.next());
+    }
+
+    @Test
+    void leastLoaded_tieSpreadsLoad_Ok() {
+        HikariDataSource first = replica(0);
+        HikariDataSource second = replica(0);
+        ReplicaRouter router = new ReplicaRouter(List.of(first, second),
+                ReplicaRouter.Strategy.LEAST_LOADED);
+        assertSame(first, router.next());
+        assertSame(second, router.next());
+    }
+
+    @Test
+    void noReplicas_Ok() {
+        assertFalse(new ReplicaRouter(List.of(), ReplicaRouter.Strategy.ROUND_ROBIN)
+                .hasReplicas());
+    }
+
+    private static HikariDataSource replica(int activeConnections) {
+        HikariPoolMXBean pool = Mockito.mock(HikariPoolMXBean.class);
+        Mockito.when(pool.getActiveConnections()).thenReturn(activeConnections);
+        HikariDataSource dataSource = Mockito.mock(HikariDataSource.class);
+        Mockito.when(dataSource.getHikariPoolMXBean()).thenReturn(pool);
+        return dataSource;
+    }
+}
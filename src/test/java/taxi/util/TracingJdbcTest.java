@@ -0,0 +1,77 @@
+package taxi.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class TracingJdbcTest {
+    @AfterEach
+    void unbind() {
+        SqlTrace.bind(null);
+    }
+
+    @Test
+    void wrap_countsStatementsAndConnectionsOfCurrentTrace_Ok() throws SQLException {
+        Connection connection = mock(Connection.class);
+        PreparedStatement select = mock(PreparedStatement.class);
+        PreparedStatement update = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(connection.prepareStatement("SELECT name FROM cars WHERE id = ?"))
+                .thenReturn(select);
+        when(connection.prepareStatement("UPDATE cars SET model = ?")).thenReturn(update);
+        when(select.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, true, false);
+        when(update.executeBatch()).thenReturn(new int[] {1, 1});
+        SqlTrace trace = new SqlTrace();
+        SqlTrace.bind(trace);
+        long before = TracingJdbc.getStatementNanos().getCount();
+
+        Connection traced = TracingJdbc.wrap(connection, "test");
+        try (PreparedStatement statement = traced
+                .prepareStatement("SELECT name FROM cars WHERE id = ?")) {
+            statement.setLong(1, 7L);
+            ResultSet rows = statement.executeQuery();
+            while (rows.next()) {
+                rows.getString("name");
+            }
+            rows.close();
+        }
+        PreparedStatement batch = traced.prepareStatement("UPDATE cars SET model = ?");
+        batch.setString(1, "a");
+        batch.addBatch();
+        assertEquals(2, batch.executeBatch().length);
+        traced.close();
+
+        assertEquals(1, trace.getConnectionCount());
+        assertEquals(2, trace.getStatementCount());
+        assertEquals(before + 2, TracingJdbc.getStatementNanos().getCount());
+        verify(select).setLong(1, 7L);
+        verify(resultSet).close();
+        verify(connection).close();
+    }
+
+    @Test
+    void wrap_withoutTrace_onlyCountsTotals_Ok() throws SQLException {
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement("DELETE FROM cars")).thenReturn(statement);
+        long before = TracingJdbc.getStatementNanos().getCount();
+
+        Connection traced = TracingJdbc.wrap(connection, "test");
+        traced.prepareStatement("DELETE FROM cars").executeUpdate();
+
+        assertEquals(before + 1, TracingJdbc.getStatementNanos().getCount());
+        assertTrue(traced.equals(traced));
+        assertFalse(traced.equals(connection));
+    }
+}
@@ -0,0 +1,155 @@
+package taxi.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import taxi.exception.DataProcessingException;
+
+class TransactionManagerTest {
+    private static final String PREFIX = "TransactionManagerTest ";
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(
+                        "DELETE FROM manufacturers WHERE name LIKE ?")) {
+            statement.setString(1, PREFIX + "%");
+            statement.executeUpdate();
+        }
+        ReadYourWrites.clear();
+        assertEquals(0, ConnectionUtil.getPoolStats().getActive());
+    }
+
+    @Test
+    void inTransaction_commit_Ok() {
+        long commits = TransactionManager.getCommitCount();
+        String result = TransactionManager.inTransaction(() -> {
+            insert("single");
+            assertTrue(TransactionManager.isTransactionActive());
+            return "done";
+        });
+        assertEquals("done", result);
+        assertFalse(TransactionManager.isTransactionActive());
+        assertEquals(List.of("single"), names());
+        assertEquals(commits + 1, TransactionManager.getCommitCount());
+    }
+
+    @Test
+    void inTransaction_uncheckedException_rolledBack() {
+        long rollbacks = TransactionManager.getRollbackCount();
+        assertThrows(IllegalStateException.class, () -> TransactionManager.runInTransaction(() -> {
+            insert("first");
+            insert("second");
+            throw new IllegalStateException("failed");
+        }));
+        assertFalse(TransactionManager.isTransactionActive());
+        assertEquals(List.of(), names());
+        assertEquals(rollbacks + 1, TransactionManager.getRollbackCount());
+    }
+
+    @Test
+    void inTransaction_nestedFailure_rolledBackToSavepoint() {
+        TransactionManager.runInTransaction(() -> {
+            insert("outer");
+            assertThrows(IllegalStateException.class,
+                    () -> TransactionManager.runInTransaction(() -> {
+                        insert("inner");
+                        throw new IllegalStateException("failed");
+                    }));
+            insert("after inner");
+        });
+        assertEquals(List.of("after inner", "outer"), names());
+    }
+
+    @Test
+    void inTransaction_outerFailure_discardsNestedWork() {
+        assertThrows(IllegalStateException.class, () -> TransactionManager.runInTransaction(() -> {
+            insert("outer");
+            TransactionManager.runInTransaction(() -> insert("inner"));
+            throw new IllegalStateException("failed");
+        }));
+        assertEquals(List.of(), names());
+    }
+
+    @Test
+    void afterCommit_runsOnlyAfterCommit_Ok() {
+        List<String> events = new ArrayList<>();
+        TransactionManager.runInTransaction(() -> {
+            insert("committed");
+            TransactionManager.afterCommit(() -> {
+                assertFalse(TransactionManager.isTransactionActive());
+                assertEquals(List.of("committed"), names());
+                events.add("after commit");
+            });
+            TransactionManager.runInTransaction(
+                    () -> TransactionManager.afterCommit(() -> events.add("nested")));
+            assertEquals(List.of(), events);
+        });
+        assertEquals(List.of("after commit", "nested"), events);
+
+        events.clear();
+        assertThrows(IllegalStateException.class, () -> TransactionManager.runInTransaction(() -> {
+            insert("rolled back");
+            TransactionManager.afterCommit(() -> events.add("after rollback"));
+            throw new IllegalStateException("failed");
+        }));
+        assertEquals(List.of(), events);
+    }
+
+    @Test
+    void inTransaction_connectionReturnedToPool_Ok() {
+        TransactionManager.runInTransaction(() -> {
+            insert("first");
+            insert("second");
+            assertEquals(1, ConnectionUtil.getPoolStats().getActive());
+        });
+        assertEquals(0, ConnectionUtil.getPoolStats().getActive());
+        assertThrows(IllegalStateException.class, () -> TransactionManager.runInTransaction(() -> {
+            insert("failed");
+            throw new IllegalStateException("failed");
+        }));
+        assertEquals(0, ConnectionUtil.getPoolStats().getActive());
+        assertThrows(DataProcessingException.class, () -> TransactionManager.runInTransaction(
+                () -> insert(null)));
+        assertEquals(0, ConnectionUtil.getPoolStats().getActive());
+    }
+
+    private static void insert(String name) {
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(
+                        "INSERT INTO manufacturers (name, country) VALUES (?, ?)")) {
+            statement.setString(1, name == null ? null : PREFIX + name);
+            statement.setString(2, "Test");
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new DataProcessingException("Can't insert manufacturer " + name, e);
+        }
+    }
+
+    private static List<String> names() {
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(
+                        "SELECT name FROM manufacturers WHERE name LIKE ? ORDER BY name")) {
+            statement.setString(1, PREFIX + "%");
+            List<String> names = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    names.add(resultSet.getString(1).substring(PREFIX.length()));
+                }
+            }
+            return names;
+        } catch (SQLException e) {
+            throw new DataProcessingException("Can't read manufacturers", e);
+        }
+    }
+}
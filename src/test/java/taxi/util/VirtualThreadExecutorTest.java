@@ -0,0 +1,58 @@
+package taxi.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.junit.jupiter.api.Test;
+
+class VirtualThreadExecutorTest {
+    @Test
+    void execute_moreThanConnections_waitsThenRejects() throws InterruptedException {
+        LongAdder rejections = new LongAdder();
+        VirtualThreadExecutor executor = new VirtualThreadExecutor(
+                Executors.newCachedThreadPool(), 1, 1, rejections);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Runnable blocking = () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+        };
+        executor.execute(blocking);
+        executor.execute(blocking);
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(blocking));
+        assertEquals(1, rejections.sum());
+        while (executor.getWaitingCount() == 0) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(1, maxRunning.get());
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+        assertEquals(2, rejections.sum());
+    }
+
+    @Test
+    void execute_onVirtualThread_Ok() throws Exception {
+        assumeTrue(VirtualThreadExecutor.isSupported(), "needs JDK 21");
+        ExecutorService executor = new VirtualThreadExecutor(2, 2, new LongAdder());
+        assertTrue(executor.submit(() -> (Boolean) Thread.class.getMethod("isVirtual")
+                .invoke(Thread.currentThread())).get(5, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+}
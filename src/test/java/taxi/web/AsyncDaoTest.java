@@ -0,0 +1,121 @@
+package taxi.web;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import taxi.exception.InvalidPageRequestException;
+
+class AsyncDaoTest {
+    private static final String VIEW = "/WEB-INF/views/cars/all.jsp";
+    private HttpServletRequest req;
+    private HttpServletResponse resp;
+    private AsyncContext asyncContext;
+    private AtomicReference<AsyncListener> listener;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        req = mock(HttpServletRequest.class);
+        resp = mock(HttpServletResponse.class);
+        asyncContext = mock(AsyncContext.class);
+        listener = new AtomicReference<>();
+        when(req.startAsync(req, resp)).thenReturn(asyncContext);
+        when(asyncContext.getResponse()).thenReturn(resp);
+        doAnswer(invocation -> {
+            listener.set(invocation.getArgument(0));
+            return null;
+        }).when(asyncContext).addListener(any(AsyncListener.class));
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void dispatch_workDone_dispatchedToView() throws InterruptedException {
+        AsyncDao.dispatch(req, resp, VIEW, () -> req.setAttribute("cars", "loaded"),
+                executor, 1000);
+        awaitExecutor();
+        verify(req).setAttribute("cars", "loaded");
+        verify(asyncContext).setTimeout(1000);
+        verify(asyncContext).dispatch(VIEW);
+    }
+
+    @Test
+    void dispatch_executorFull_serviceUnavailable() throws IOException {
+        executor.shutdown();
+        AsyncDao.dispatch(req, resp, VIEW, () -> { }, executor, 1000);
+        verify(resp).setHeader("Retry-After", "1");
+        verify(resp).sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        verify(asyncContext).complete();
+    }
+
+    @Test
+    void dispatch_timedOut_serviceUnavailableAndNoDispatch()
+            throws IOException, InterruptedException {
+        Object release = new Object();
+        AsyncDao.dispatch(req, resp, VIEW, () -> {
+            synchronized (release) {
+                try {
+                    release.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, executor, 1000);
+        listener.get().onTimeout(new AsyncEvent(asyncContext));
+        awaitExecutor();
+        verify(resp).sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        verify(asyncContext).complete();
+        verify(asyncContext, never()).dispatch(VIEW);
+    }
+
+    @Test
+    void dispatch_invalidArgument_badRequest() throws IOException, InterruptedException {
+        AsyncDao.dispatch(req, resp, null, () -> {
+            throw new InvalidPageRequestException("Unknown sort column");
+        }, executor, 1000);
+        awaitExecutor();
+        verify(resp).sendError(HttpServletResponse.SC_BAD_REQUEST, "Unknown sort column");
+        verify(asyncContext).complete();
+        verify(asyncContext, never()).dispatch();
+    }
+
+    @Test
+    void dispatch_otherIllegalArgument_serverError() throws IOException, InterruptedException {
+        AsyncDao.dispatch(req, resp, null, () -> {
+            throw new IllegalArgumentException("Unknown manufacturer");
+        }, executor, 1000);
+        awaitExecutor();
+        verify(resp).sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        verify(asyncContext).complete();
+        verify(asyncContext, never()).dispatch();
+    }
+
+    private void awaitExecutor() throws InterruptedException {
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,44 @@
+package taxi.web;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import taxi.util.TableVersions;
+
+class ConditionalGetTest {
+    private static final TableVersions.Table CARS = TableVersions.Table.CARS;
+    private static final TableVersions.Table DRIVERS = TableVersions.Table.DRIVERS;
+
+    @Test
+    void isNotModified_currentEtag_notModified() {
+        HttpServletRequest req = mock(HttpServletRequest.class);
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        String etag = ConditionalGet.buildEtag(null, CARS, DRIVERS);
+        when(req.getHeader("If-None-Match")).thenReturn("W/\"other\", " + etag);
+        assertTrue(ConditionalGet.isNotModified(req, resp, CARS, DRIVERS));
+        verify(resp).setHeader("ETag", etag);
+        verify(resp).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+    }
+
+    @Test
+    void isNotModified_tableChanged_modified() {
+        HttpServletRequest req = mock(HttpServletRequest.class);
+        String etag = ConditionalGet.buildEtag(null, CARS, DRIVERS);
+        when(req.getHeader("If-None-Match")).thenReturn(etag);
+        TableVersions.bump(DRIVERS);
+        assertFalse(ConditionalGet.isNotModified(req, mock(HttpServletResponse.class),
+                CARS, DRIVERS));
+    }
+
+    @Test
+    void buildEtag_differentUsers_differentEtags() {
+        assertNotEquals(ConditionalGet.buildEtag(1L, CARS), ConditionalGet.buildEtag(2L, CARS));
+    }
+}
@@ -0,0 +1,51 @@
+package taxi.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import javax.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import taxi.exception.InvalidPageRequestException;
+import taxi.model.PageRequest;
+
+class PageRequestParserTest {
+    @Test
+    void parse_defaults_Ok() {
+        PageRequest pageRequest = PageRequestParser.parse(request(null, null, null));
+        assertNull(pageRequest.getCursor());
+        assertEquals(PageRequest.DEFAULT_SIZE, pageRequest.getSize());
+        assertEquals(PageRequest.DEFAULT_SORT, pageRequest.getSort());
+    }
+
+    @Test
+    void parse_afterAndSize_Ok() {
+        PageRequest pageRequest = PageRequestParser.parse(request("42", null, "10"));
+        assertEquals(42L, pageRequest.getAfterId());
+        assertEquals(10, pageRequest.getSize());
+    }
+
+    @Test
+    void parse_invalidValues_rejected() {
+        assertThrows(InvalidPageRequestException.class,
+                () -> PageRequestParser.parse(request("abc", null, null)));
+        assertThrows(InvalidPageRequestException.class,
+                () -> PageRequestParser.parse(request(null, "-1", null)));
+        assertThrows(InvalidPageRequestException.class,
+                () -> PageRequestParser.parse(request(null, null, "0")));
+        assertThrows(InvalidPageRequestException.class,
+                () -> PageRequestParser.parse(request(null, null, "ten")));
+        assertThrows(InvalidPageRequestException.class,
+                () -> PageRequestParser.parse(request("1", "5", null)));
+    }
+
+    private static HttpServletRequest request(String after, String before, String size) {
+        HttpServletRequest req = mock(HttpServletRequest.class);
+        when(req.getParameter("after")).thenReturn(after);
+        when(req.getParameter("before")).thenReturn(before);
+        when(req.getParameter("size")).thenReturn(size);
+        return req;
+    }
+}
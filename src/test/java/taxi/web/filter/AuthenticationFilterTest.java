@@ -0,0 +1,44 @@
+package taxi.web.filter;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AuthenticationFilterTest {
+    private final AuthenticationFilter filter = new AuthenticationFilter();
+    private HttpServletRequest req;
+    private HttpServletResponse resp;
+    private FilterChain chain;
+
+    @BeforeEach
+    void setUp() {
+        req = mock(HttpServletRequest.class);
+        resp = mock(HttpServletResponse.class);
+        chain = mock(FilterChain.class);
+    }
+
+    @Test
+    void doFilter_anonymousMetrics_redirectedToLogin() throws IOException, ServletException {
+        when(req.getServletPath()).thenReturn("/metrics");
+        filter.doFilter(req, resp, chain);
+        verify(resp).sendRedirect("/login");
+        verify(chain, never()).doFilter(any(), any());
+    }
+
+    @Test
+    void doFilter_anonymousLogin_Ok() throws IOException, ServletException {
+        when(req.getServletPath()).thenReturn("/login");
+        filter.doFilter(req, resp, chain);
+        verify(chain).doFilter(req, resp);
+    }
+}
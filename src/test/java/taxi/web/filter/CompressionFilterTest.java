@@ -0,0 +1,106 @@
+package taxi.web.filter;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CompressionFilterTest {
+    private static final String LONG_PAGE = "<tr><td>car</td></tr>".repeat(200);
+    private HttpServletRequest req;
+    private HttpServletResponse resp;
+    private ByteArrayOutputStream body;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        req = mock(HttpServletRequest.class);
+        resp = mock(HttpServletResponse.class);
+        body = new ByteArrayOutputStream();
+        when(req.getHeader("Accept-Encoding")).thenReturn("gzip, deflate, br");
+        when(resp.getStatus()).thenReturn(HttpServletResponse.SC_OK);
+        when(resp.getContentType()).thenReturn("text/html;charset=UTF-8");
+        when(resp.getCharacterEncoding()).thenReturn("UTF-8");
+        when(resp.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+        });
+    }
+
+    @Test
+    void doFilter_longPage_gzipped() throws IOException, ServletException {
+        new CompressionFilter().doFilter(req, resp, writePage(LONG_PAGE));
+        verify(resp).setHeader("Content-Encoding", "gzip");
+        try (GZIPInputStream input = new GZIPInputStream(
+                new ByteArrayInputStream(body.toByteArray()))) {
+            assertEquals(LONG_PAGE, new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void doFilter_shortPage_notCompressed() throws IOException, ServletException {
+        new CompressionFilter().doFilter(req, resp, writePage("<p>ok</p>"));
+        verify(resp, never()).setHeader(eq("Content-Encoding"), anyString());
+        assertEquals("<p>ok</p>", body.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void doFilter_binaryContent_passedThrough() throws IOException, ServletException {
+        when(resp.getContentType()).thenReturn("image/png");
+        byte[] image = new byte[4096];
+        new CompressionFilter().doFilter(req, resp, (request, response) -> {
+            response.setContentLength(image.length);
+            response.getOutputStream().write(image);
+        });
+        verify(resp, never()).setHeader(eq("Content-Encoding"), anyString());
+        verify(resp).setContentLengthLong(image.length);
+        assertArrayEquals(image, body.toByteArray());
+    }
+
+    @Test
+    void chooseEncoding_Ok() {
+        assertEquals("gzip", CompressionFilter.chooseEncoding("deflate, gzip;q=0.5"));
+        assertEquals("deflate", CompressionFilter.chooseEncoding("gzip;q=0, deflate"));
+        assertEquals("gzip", CompressionFilter.chooseEncoding("*"));
+        assertNull(CompressionFilter.chooseEncoding("identity"));
+        assertNull(CompressionFilter.chooseEncoding(null));
+    }
+
+    private FilterChain writePage(String page) {
+        return (request, response) -> {
+            PrintWriter writer = response.getWriter();
+            writer.write(page);
+            writer.flush();
+        };
+    }
+}
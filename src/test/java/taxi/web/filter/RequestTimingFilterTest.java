@@ -0,0 +1,84 @@
+package taxi.web.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import javax.servlet.DispatcherType;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletMapping;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import taxi.metrics.EndpointTimings;
+import taxi.web.RequestTiming;
+
+class RequestTimingFilterTest {
+    private final Map<String, Object> attributes = new HashMap<>();
+    private HttpServletRequest req;
+    private HttpServletResponse resp;
+
+    @BeforeEach
+    void setUp() {
+        req = mock(HttpServletRequest.class);
+        resp = mock(HttpServletResponse.class);
+        HttpServletMapping mapping = mock(HttpServletMapping.class);
+        when(mapping.getPattern()).thenReturn("/timed");
+        when(req.getHttpServletMapping()).thenReturn(mapping);
+        when(req.getDispatcherType()).thenReturn(DispatcherType.REQUEST);
+        when(req.getAttribute(anyString())).thenAnswer(call -> attributes.get(call.getArgument(0)));
+        doAnswer(call -> attributes.put(call.getArgument(0), call.getArgument(1)))
+                .when(req).setAttribute(anyString(), any());
+    }
+
+    @Test
+    void doFilter_forwardToPage_reportsPhases() throws IOException, ServletException {
+        RequestTimingFilter filter = new RequestTimingFilter();
+        long before = EndpointTimings.get("/timed", "render").getCount();
+        filter.doFilter(req, resp, (request, response) -> {
+            RequestTiming.markServiceStart(request);
+            when(req.getDispatcherType()).thenReturn(DispatcherType.FORWARD);
+            filter.doFilter(request, response, (page, pageResponse) ->
+                    pageResponse.getWriter());
+        });
+        ArgumentCaptor<String> header = ArgumentCaptor.forClass(String.class);
+        verify(resp).setHeader(eq("Server-Timing"), header.capture());
+        assertTrue(header.getValue().matches(
+                "auth;dur=[0-9.]+, service;dur=[0-9.]+, render;dur=[0-9.]+, total;dur=[0-9.]+"),
+                header.getValue());
+        assertEquals(before + 1, EndpointTimings.get("/timed", "render").getCount());
+    }
+
+    @Test
+    void markServiceStart_onAsyncDispatch_ignored() {
+        RequestTiming timing = new RequestTiming("/timed", null, System.nanoTime());
+        attributes.put(RequestTiming.ATTRIBUTE, timing);
+        RequestTiming.markServiceStart(req);
+        timing.requestDispatchEnded(true);
+        when(req.getDispatcherType()).thenReturn(DispatcherType.ASYNC);
+        RequestTiming.markServiceStart(req);
+        assertTrue(timing.getPhases().get("service") >= 0);
+    }
+
+    @Test
+    void doFilter_rejectedByAuth_onlyAuthPhase() throws IOException, ServletException {
+        new RequestTimingFilter().doFilter(req, resp, (request, response) ->
+                ((HttpServletResponse) response).sendRedirect("/login"));
+        ArgumentCaptor<String> header = ArgumentCaptor.forClass(String.class);
+        verify(resp).setHeader(eq("Server-Timing"), header.capture());
+        assertTrue(header.getValue().startsWith("auth;dur="), header.getValue());
+        assertFalse(header.getValue().contains("service"), header.getValue());
+    }
+}
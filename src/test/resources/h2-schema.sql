@@ -0,0 +1,36 @@
+-- The tables of init_db.sql in a form H2 accepts in MySQL mode.
+CREATE TABLE IF NOT EXISTS manufacturers (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    country VARCHAR(255) NOT NULL,
+    is_deleted BOOLEAN NOT NULL DEFAULT FALSE
+);
+CREATE TABLE IF NOT EXISTS drivers (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    license_number VARCHAR(255) NOT NULL,
+    login VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    is_deleted BOOLEAN NOT NULL DEFAULT FALSE
+);
+CREATE TABLE IF NOT EXISTS cars (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    model VARCHAR(255) NOT NULL,
+    manufacturer_id BIGINT NOT NULL,
+    is_deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    FOREIGN KEY (manufacturer_id) REFERENCES manufacturers (id)
+);
+CREATE TABLE IF NOT EXISTS cars_drivers (
+    car_id BIGINT NOT NULL,
+    driver_id BIGINT NOT NULL,
+    PRIMARY KEY (car_id, driver_id),
+    FOREIGN KEY (car_id) REFERENCES cars (id),
+    FOREIGN KEY (driver_id) REFERENCES drivers (id)
+);
+CREATE INDEX IF NOT EXISTS cars_drivers_driver_id ON cars_drivers (driver_id);
+CREATE INDEX IF NOT EXISTS cars_is_deleted_model ON cars (is_deleted, model, id);
+CREATE INDEX IF NOT EXISTS drivers_is_deleted_name ON drivers (is_deleted, name, id);
+CREATE INDEX IF NOT EXISTS drivers_is_deleted_login ON drivers (is_deleted, login, id);
+CREATE INDEX IF NOT EXISTS manufacturers_is_deleted_name ON manufacturers (is_deleted, name, id);
+CREATE INDEX IF NOT EXISTS manufacturers_is_deleted_country
+    ON manufacturers (is_deleted, country, id);